@@ -138,6 +138,14 @@ public class BagModel {
 	
 	public static final BiPredicate<Claim,Claim> ADJACENT_CLAIMS = (c1, c2) -> c1.spaceDist(c2) == 1;
 	
+  /**
+   * <p>Outputs the spatial coordinates of a Claim, so that Claims a {@link Claim#spaceDist(Claim) 
+   * distance} of 1 apart, the Claims that {@link #ADJACENT_CLAIMS ADJACENT_CLAIMS} connects, sit in 
+   * adjacent cells for {@link Wrap#wrapGrid(Collection, Function) Wrap.wrapGrid()}.</p>
+   */
+	public static final Function<Claim, int[]> CLAIM_COORDINATES = 
+	    (c) -> new int[]{c.getX().intValue(), c.getY().intValue(), c.getZ().intValue()};
+	
     /**
      * <p>Returns true if removing {@code emptyVoxel} from {@code markedVoxels} would not split
      * {@code markedVoxels} into multiple connected components.</p> <p>For the purpose of this
@@ -153,8 +161,8 @@ public class BagModel {
 		Set<Claim> newMarkedVoxels = voxels.parallelStream()
 				.filter((e) -> e != emptyVoxel && map.get(e).getStatus() != VoxelModel.Status.VANISHED)
 				.collect(Collectors.toSet());
-		return new BasicGraph<Wrap<Claim>>(Wrap.wrap(newMarkedVoxels, ADJACENT_CLAIMS))
-		    .connectedComponents().size() == SINGLE_CONNECTED_COMPONENT;
+		return new BasicGraph<Wrap<Claim>>(Wrap.wrapGrid(newMarkedVoxels, CLAIM_COORDINATES))
+		    .componentCount() == SINGLE_CONNECTED_COMPONENT;
 	}
 	
 	public static final int SINGLE_CONNECTED_COMPONENT = 1;
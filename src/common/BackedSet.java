@@ -1,16 +1,22 @@
 package common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.math.BigInteger;
 
 /**
  * <p>A Set implementation that can only contain elements included in a predefined list and refers 
  * to those elements by their index in that list.</p>
+ * <p>Membership is stored as a bitstring in an array of {@code long}s sized for the whole 
+ * Universe, which every operation changes in place. When both operands have the same Universe, 
+ * the bulk operations work a word at a time and report whether they changed anything without 
+ * copying either bitstring.</p>
  * @see Universe
  * @see java.util.EnumSet
  * @author fiveham
@@ -18,7 +24,9 @@ import java.math.BigInteger;
 public class BackedSet<E> implements Set<E>, Cloneable{
 	
 	private final Universe<E> universe;
-	private BigInteger mask;
+	private final long[] words;
+	private int size;
+	private int modCount;
 	
 	/**
 	 * <p>Constructs a BackedSet backed by {@code universe} and initially containing no elements.</p>
@@ -26,7 +34,9 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	 */
 	public BackedSet(Universe<E> universe) {
 		this.universe = universe;
-		this.mask = BigInteger.ZERO;
+		this.words = new long[Bits.wordCount(universe.size())];
+		this.size = 0;
+		this.modCount = 0;
 	}
 	
 	/**
@@ -53,43 +63,30 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	
 	@Override
 	public int size() {
-		return mask.bitCount();
+		return size;
 	}
 	
 	@Override
 	public boolean isEmpty() {
-		return mask.equals(BigInteger.ZERO);
+		return size == 0;
 	}
 	
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean contains(Object o) {
-		return universe.contains(o) && mask.testBit(universe.index((E) o));
+		return universe.contains(o) && Bits.test(words, universe.index((E) o));
 	}
 	
 	@Override
 	public Iterator<E> iterator() {
 		class BSIterator implements Iterator<E>{
 			
-			BigInteger comparisonMask;
-			int pointer;
-			
-			BSIterator(){
-				comparisonMask = BackedSet.this.mask;
-				pointer = comparisonMask.getLowestSetBit();
-			}
-			
-			private void updatePointer(){
-				while(pointer<universe.size()){
-					if(comparisonMask.testBit(pointer)){
-						return;
-					}
-					pointer++;
-				}
-			}
+			int expectedModCount = modCount;
+			int pointer = Bits.nextSetBit(words, 0);
+			int lastIndex = Bits.NO_BIT;
 			
 			private void concurrentModificationCheck(){
-				if(!comparisonMask.equals(mask)){
+				if(expectedModCount != modCount){
 					throw new ConcurrentModificationException();
 				}
 			}
@@ -97,27 +94,28 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 			@Override
 			public boolean hasNext() {
 				concurrentModificationCheck();
-				return comparisonMask.testBit(pointer);
+				return pointer != Bits.NO_BIT;
 			}
 			
 			@Override
 			public E next() {
 				concurrentModificationCheck();
-				lastResult = universe.get(pointer);
-				pointer++;
-				updatePointer();
-				return lastResult;
+				if(pointer == Bits.NO_BIT){
+					throw new NoSuchElementException();
+				}
+				lastIndex = pointer;
+				pointer = Bits.nextSetBit(words, pointer + 1);
+				return universe.get(lastIndex);
 			}
 			
-			private E lastResult = null;
-			
 			@Override
 			public void remove(){
-				if(lastResult != null){
+				if(lastIndex != Bits.NO_BIT){
 					concurrentModificationCheck();
-					BackedSet.this.remove(lastResult);
-					lastResult = null;
-					comparisonMask = mask;
+					Bits.clear(words, lastIndex);
+					size--;
+					expectedModCount = ++modCount;
+					lastIndex = Bits.NO_BIT;
 				} else{
 					throw new IllegalStateException("Element already removed or not yet returned.");
 				}
@@ -129,12 +127,27 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	
 	@Override
 	public Object[] toArray() {
-		return new ArrayList<>(this).toArray();
+		return elements().toArray();
 	}
 	
 	@Override
 	public <T> T[] toArray(T[] a) {
-		return new ArrayList<>(this).toArray(a);
+		return elements().toArray(a);
+	}
+	
+  /**
+   * <p>Returns a list of the elements of this set, in the order of their indices in the 
+   * Universe.</p>
+   * <p>The list is filled by iterating over this set, since {@link ArrayList#ArrayList(Collection) 
+   * copying} this set into a list would call {@link #toArray() toArray()}.</p>
+   * @return a list of the elements of this set
+   */
+	private List<E> elements(){
+		List<E> result = new ArrayList<>(size);
+		for(E e : this){
+			result.add(e);
+		}
+		return result;
 	}
 	
   /**
@@ -147,16 +160,48 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	@Override
 	public boolean add(E e) {
 		if(universe.contains(e)){
-			int index = universe.index(e);
-			boolean old = mask.testBit(index);
-			mask = mask.setBit(index);
-			return old != mask.testBit(index);
+			if(Bits.set(words, universe.index(e))){
+				size++;
+				modCount++;
+				return true;
+			}
+			return false;
 		} else{
 			throw new OutOfUniverseException(
 			    "Cannot add the object because it is not in this set's universe.");
 		}
 	}
 	
+  /**
+   * <p>Adds the elements whose indices in this set's Universe are the positions of the bits set in
+   * {@code word}, taken as word {@code wordIndex} of a bitstring indexed like the Universe.</p>
+   * <p>This lets a caller that knows how its Universe is ordered add a whole block of elements 
+   * with one word operation.</p>
+   * @param wordIndex the index of the word of this set's bitstring to which {@code word} is added
+   * @param word the bits of the elements to be added
+   * @return true if this set was modified by this operation, false otherwise
+   * @throws OutOfUniverseException if {@code word} has a bit set for an index not in this set's 
+   * Universe
+   * @throws ArrayIndexOutOfBoundsException if {@code wordIndex} is negative or not less than the 
+   * number of words needed for this set's Universe
+   */
+	public boolean addWord(int wordIndex, long word){
+		int bitsInLastWord = universe.size() - (words.length - 1) * Bits.BITS_PER_WORD;
+		if(wordIndex == words.length - 1 && (word >>> 1 >>> (bitsInLastWord - 1)) != 0){
+			throw new OutOfUniverseException(
+			    "Cannot add the bits because some of them are outside this set's universe.");
+		}
+		long old = words[wordIndex];
+		long result = old | word;
+		if(result != old){
+			words[wordIndex] = result;
+			size += Long.bitCount(result) - Long.bitCount(old);
+			modCount++;
+			return true;
+		}
+		return false;
+	}
+	
 	/**
 	 * <p>Indicates that an object is not in a given BackedSet's Universe.</p>
 	 * @author fiveham
@@ -175,9 +220,11 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 		if(universe.contains(o)){
 			@SuppressWarnings("unchecked")
 			int index = universe.index((E) o);
-			boolean old = mask.testBit(index);
-			mask = mask.clearBit(index);
-			return old != mask.testBit(index);
+			if(Bits.clear(words, index)){
+				size--;
+				modCount++;
+				return true;
+			}
 		}
 		return false;
 	}
@@ -186,8 +233,13 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	public boolean containsAll(Collection<?> c) {
 		if(c instanceof BackedSet<?>){
 			BackedSet<?> b = (BackedSet<?>) c;
-			if(universe.equals(b.universe)){
-				return this.mask.or(b.mask).equals(this.mask); 
+			if(sameUniverse(this, b)){
+				for(int i = 0; i < words.length; ++i){
+					if((b.words[i] & ~words[i]) != 0){
+						return false;
+					}
+				}
+				return true;
 			}
 		}
 		return c.stream().allMatch(this::contains);
@@ -201,25 +253,23 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	public boolean addAll(Collection<? extends E> c) {
 		if(c instanceof BackedSet<?>){
 			BackedSet<?> b = (BackedSet<?>) c;
-			if(universe.equals(b.universe)){
-				BigInteger oldMask = mask;
-				mask = mask.or(b.mask);
-				return !oldMask.equals(mask);
+			if(sameUniverse(this, b)){
+				return combine(b, Op.OR);
 			}
 		}
-		return c.stream()
-				.map(this::add)
-				.reduce(false, Boolean::logicalOr);
+		boolean result = false;
+		for(E e : c){
+			result |= add(e);
+		}
+		return result;
 	}
 	
 	@Override
 	public boolean retainAll(Collection<?> c) {
 		if(c instanceof BackedSet<?>){
 			BackedSet<?> b = (BackedSet<?>) c;
-			if(universe.equals(b.universe)){
-				BigInteger oldMask = mask;
-				mask = mask.and(b.mask);
-				return !oldMask.equals(mask);
+			if(sameUniverse(this, b)){
+				return combine(b, Op.AND);
 			}
 		}
 		
@@ -238,16 +288,69 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	public boolean removeAll(Collection<?> c) {
 		if(c instanceof BackedSet<?>){
 			BackedSet<?> b = (BackedSet<?>) c;
-			if(universe.equals(b.universe)){
-				BigInteger oldMask = mask;
-				mask = mask.andNot(b.mask);
-				return !mask.equals(oldMask);
+			if(sameUniverse(this, b)){
+				return combine(b, Op.AND_NOT);
 			}
 		}
 		
-		return c.stream()
-				.map(this::remove)
-				.reduce(false, Boolean::logicalOr);
+		boolean result = false;
+		for(Object o : c){
+			result |= remove(o);
+		}
+		return result;
+	}
+	
+  /**
+   * <p>The word-wise operations with which a BackedSet can be combined in place with another 
+   * BackedSet that has the same Universe.</p>
+   */
+	private static enum Op{
+		OR{
+			@Override
+			long apply(long mine, long theirs){
+				return mine | theirs;
+			}
+		}, 
+		AND{
+			@Override
+			long apply(long mine, long theirs){
+				return mine & theirs;
+			}
+		}, 
+		AND_NOT{
+			@Override
+			long apply(long mine, long theirs){
+				return mine & ~theirs;
+			}
+		};
+		
+		abstract long apply(long mine, long theirs);
+	}
+	
+  /**
+   * <p>Replaces each word of this set's bitstring with the result of {@code op} applied to it and 
+   * the corresponding word of {@code b}'s bitstring, recounting this set's size along the 
+   * way.</p>
+   * @param b a BackedSet with the same Universe as this one
+   * @param op the operation that combines a word of this set with a word of {@code b}
+   * @return true if this set was changed, false otherwise
+   */
+	private boolean combine(BackedSet<?> b, Op op){
+		boolean changed = false;
+		int newSize = 0;
+		for(int i = 0; i < words.length; ++i){
+			long word = op.apply(words[i], b.words[i]);
+			if(word != words[i]){
+				words[i] = word;
+				changed = true;
+			}
+			newSize += Long.bitCount(word);
+		}
+		if(changed){
+			size = newSize;
+			modCount++;
+		}
+		return changed;
 	}
 	
 	/**
@@ -260,41 +363,65 @@ public class BackedSet<E> implements Set<E>, Cloneable{
 	
 	@Override
 	public void clear() {
-		mask = BigInteger.ZERO;
+		if(size != 0){
+			Arrays.fill(words, 0L);
+			size = 0;
+			modCount++;
+		}
 	}
 	
 	@Override
 	public boolean equals(Object o){
 		if(o instanceof BackedSet){
 			BackedSet<?> b = (BackedSet<?>) o;
-			return b.mask.equals(mask) && b.universe.equals(universe);
+			return b.size == size && Arrays.equals(b.words, words) && sameUniverse(this, b);
 		}
 		return false;
 	}
 	
 	@Override
 	public int hashCode(){
-		return universe.hashCode() + mask.hashCode();
+		return universe.hashCode() + Arrays.hashCode(words);
 	}
 	
 	@Override
 	public BackedSet<E> clone(){
 		BackedSet<E> result = new BackedSet<>(this.universe);
-		result.mask = this.mask;
+		System.arraycopy(words, 0, result.words, 0, words.length);
+		result.size = size;
 		return result;
 	}
 	
+  /**
+   * <p>Returns true if {@code a} and {@code b} have the same Universe, and so can be combined a 
+   * word at a time, false otherwise.</p>
+   * <p>BackedSets that are worked on together are almost always built on the very same Universe 
+   * instance, which this checks first, in constant time, before comparing the Universes.</p>
+   * @param a a BackedSet
+   * @param b a BackedSet
+   * @return true if {@code a} and {@code b} have the same Universe, false otherwise
+   */
+	private static boolean sameUniverse(BackedSet<?> a, BackedSet<?> b){
+		return a.universe == b.universe || a.universe.equals(b.universe);
+	}
+	
 	/**
 	 * <p>Returns true if {@code a} and {@code b} are disjoint, false otherwise.</p>
 	 * <p>This method uses bitwise integer operations if {@code a} and {@code b} have the same 
-	 * Universe.</p>
+	 * Universe, and stops at the first word they have in common.</p>
 	 * @param a a BackedSet
 	 * @param b a BackedSet
 	 * @return true if {@code a} and {@code b} are disjoint, false otherwise
 	 */
 	public static boolean disjoint(BackedSet<?> a, BackedSet<?> b){
-		return a.universe.equals(b.universe)
-			? a.mask.xor(b.mask).equals(BigInteger.ZERO)
-			: Collections.disjoint(a, b);
+		if(sameUniverse(a, b)){
+			for(int i = 0; i < a.words.length; ++i){
+				if((a.words[i] & b.words[i]) != 0){
+					return false;
+				}
+			}
+			return true;
+		}
+		return Collections.disjoint(a, b);
 	}
 }
@@ -0,0 +1,139 @@
+package common;
+
+/**
+ * <p>Static operations on bitstrings stored in {@code long} arrays, where bit {@code i} is bit
+ * {@code i % 64} of word {@code i / 64}.</p>
+ * <p>These methods do no bounds-checking beyond what array access does on its own.</p>
+ * @author fiveham
+ * @see java.util.BitSet
+ */
+public class Bits {
+	
+  /**
+   * <p>The number ({@value}) of bits in a word.</p>
+   */
+	public static final int BITS_PER_WORD = Long.SIZE;
+	
+	private static final int ADDRESS_BITS_PER_WORD = 6;
+	
+	private Bits(){
+	}
+	
+  /**
+   * <p>Returns the number of words needed to hold {@code bitCount} bits.</p>
+   * @param bitCount a number of bits
+   * @return the number of words needed to hold {@code bitCount} bits
+   */
+	public static int wordCount(int bitCount){
+		return (bitCount + BITS_PER_WORD - 1) >>> ADDRESS_BITS_PER_WORD;
+	}
+	
+  /**
+   * <p>Returns the index of the word that holds bit {@code i}.</p>
+   * @param i a bit index
+   * @return the index of the word that holds bit {@code i}
+   */
+	public static int wordIndex(int i){
+		return i >>> ADDRESS_BITS_PER_WORD;
+	}
+	
+  /**
+   * <p>Returns true if bit {@code i} of {@code words} is set, false otherwise.</p>
+   * @param words a bitstring
+   * @param i a bit index
+   * @return true if bit {@code i} of {@code words} is set, false otherwise
+   */
+	public static boolean test(long[] words, int i){
+		return (words[wordIndex(i)] & (1L << i)) != 0;
+	}
+	
+  /**
+   * <p>Sets bit {@code i} of {@code words}.</p>
+   * @param words a bitstring
+   * @param i a bit index
+   * @return true if the bit was clear before this call, false otherwise
+   */
+	public static boolean set(long[] words, int i){
+		int w = wordIndex(i);
+		long old = words[w];
+		words[w] = old | (1L << i);
+		return old != words[w];
+	}
+	
+  /**
+   * <p>Clears bit {@code i} of {@code words}.</p>
+   * @param words a bitstring
+   * @param i a bit index
+   * @return true if the bit was set before this call, false otherwise
+   */
+	public static boolean clear(long[] words, int i){
+		int w = wordIndex(i);
+		long old = words[w];
+		words[w] = old & ~(1L << i);
+		return old != words[w];
+	}
+	
+  /**
+   * <p>Returns the index of the first set bit of {@code words} at or after {@code from}, or -1 if
+   * there is no such bit.</p>
+   * @param words a bitstring
+   * @param from the bit index from which to start looking
+   * @return the index of the first set bit of {@code words} at or after {@code from}, or -1 if
+   * there is no such bit
+   */
+	public static int nextSetBit(long[] words, int from){
+		int w = wordIndex(from);
+		if(w >= words.length){
+			return NO_BIT;
+		}
+		long word = words[w] & (-1L << from);
+		while(true){
+			if(word != 0){
+				return w * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+			}
+			if(++w == words.length){
+				return NO_BIT;
+			}
+			word = words[w];
+		}
+	}
+	
+  /**
+   * <p>The value ({@value}) returned by {@link #nextSetBit(long[],int) nextSetBit()} when there is
+   * no set bit to report.</p>
+   */
+	public static final int NO_BIT = -1;
+	
+  /**
+   * <p>Returns the bits of {@code word} at the positions of the bits set in {@code mask}, packed
+   * into the low-order end of the result in the same order: the bit of {@code word} at the
+   * position of the {@code n}th lowest set bit of {@code mask} becomes bit {@code n} of the
+   * result.</p>
+   * <p>This takes time proportional to the number of bits set in both {@code word} and
+   * {@code mask}.</p>
+   * @param word the bits to be packed
+   * @param mask the positions of the bits of {@code word} to be packed
+   * @return the bits of {@code word} at the positions set in {@code mask}, packed together
+   */
+	public static long compress(long word, long mask){
+		long result = 0;
+		for(long bits = word & mask; bits != 0; bits &= bits - 1){
+			long lowest = bits & -bits;
+			result |= 1L << Long.bitCount(mask & (lowest - 1));
+		}
+		return result;
+	}
+	
+  /**
+   * <p>Returns the number of set bits in {@code words}.</p>
+   * @param words a bitstring
+   * @return the number of set bits in {@code words}
+   */
+	public static int cardinality(long[] words){
+		int result = 0;
+		for(long word : words){
+			result += Long.bitCount(word);
+		}
+		return result;
+	}
+}
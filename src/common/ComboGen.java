@@ -1,18 +1,26 @@
 package common;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.function.IntFunction;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 /**
  * <p>Generates combinations of the elements in a given collection supplied to the constructor.</p>
+ * <p>Combinations are produced in order of increasing size. Among combinations of the same size, 
+ * a combination is treated as a bitstring with a bit set for the index in the source of each of 
+ * its elements, and the combinations are produced in order of decreasing bitstring, starting with 
+ * the last elements of the source and ending with the first.</p>
+ * <p>Each combination has a rank, its position in that order. Moving from one combination to the 
+ * next takes a few primitive operations and allocates nothing: if the source has at most 
+ * {@value #MAX_WORD_SOURCE_SIZE} elements, the bitstring is a {@code long} stepped with Gosper's 
+ * hack; otherwise the combination's indices are stepped in place. The {@link #indexSpliterator() 
+ * spliterator} splits by rank, by building the combination at a given rank directly, so the 
+ * combinations can be visited in parallel.</p>
  * @author fiveham
  * @param <T> the type of the elements in the combinations that this that this class produces
  */
@@ -23,6 +31,13 @@ public class ComboGen<T> implements Iterable<List<T>>{
    */
 	public static final int MIN_COMBO_SIZE = 0;
 	
+  /**
+   * <p>The greatest number of source elements ({@value}) for which combinations are stepped as 
+   * bits of a {@code long}. Gosper's hack needs one bit above the source for its carry, and the 
+   * sign bit is left alone.</p>
+   */
+	public static final int MAX_WORD_SOURCE_SIZE = Long.SIZE - 2;
+	
   /**
    * <p>The internal list from which elements are chosen for the combinations that are produced.</p>
    */
@@ -31,10 +46,19 @@ public class ComboGen<T> implements Iterable<List<T>>{
 	private final int minSize;
 	private final int maxSize;
 	
+  /**
+   * <p>The rank of the first combination of each size from {@code minSize} to {@code maxSize}, 
+   * followed by the total number of combinations, or null if there are too many combinations for 
+   * their ranks to fit in a {@code long}.</p>
+   */
+	private final long[] firstRanks;
+	
   /**
    * <p>Constructs a ComboGen that produces combinations of elements from {@code source} that have
-   * a size at least {@value #MIN_COMBO_SIZE} and at most {@code source.size()}.</p>
+   * a size at least {@code minSize} and at most {@code maxSize}.</p>
    * @param source a collection of elements combinations of which are produced by this ComboGen
+   * @param minSize the size of the smallest combinations produced
+   * @param maxSize the size of the largest combinations produced
    */
 	public ComboGen(Collection<? extends T> source, int minSize, int maxSize){
 		if(minSize < MIN_COMBO_SIZE){
@@ -44,215 +68,347 @@ public class ComboGen<T> implements Iterable<List<T>>{
 		} else if(maxSize < minSize){
 		  throw new IllegalArgumentException("maxSize " + maxSize + " < minSize " + minSize);
 		}
-
+		
     this.source = new ArrayList<>(source);
 		this.minSize = minSize;
-		this.maxSize = maxSize;
+		this.maxSize = Math.min(maxSize, this.source.size());
+		this.firstRanks = genFirstRanks(this.source.size(), this.minSize, this.maxSize);
 	}
 	
+  /**
+   * <p>Returns the rank of the first combination of each size from {@code minSize} to 
+   * {@code maxSize} of {@code n} elements, followed by the total number of combinations, or null 
+   * if the total does not fit in a {@code long}.</p>
+   * @param n the number of source elements
+   * @param minSize the size of the smallest combinations
+   * @param maxSize the size of the largest combinations
+   * @return the rank of the first combination of each size, followed by the total number of 
+   * combinations, or null if the total is too large
+   */
+	private static long[] genFirstRanks(int n, int minSize, int maxSize){
+		long[] result = new long[Math.max(0, maxSize - minSize + 1) + 1];
+		for(int size = minSize; size <= maxSize; ++size){
+			long count = binomial(n, size);
+			long next = result[size - minSize] + count;
+			if(count == UNRANKABLE || next < 0){
+				return null;
+			}
+			result[size - minSize + 1] = next;
+		}
+		return result;
+	}
+	
+  /**
+   * <p>Returns the number of combinations of size {@code k} of {@code n} elements, or 
+   * {@value #UNRANKABLE} if that number does not fit in a {@code long}.</p>
+   * <p>This is only used to count combinations and to find the combination at a given rank, never 
+   * while stepping from one combination to the next.</p>
+   * @param n the number of elements
+   * @param k the size of the combinations
+   * @return the number of combinations of size {@code k} of {@code n} elements, or -1 if that 
+   * number is too large
+   */
+	private static long binomial(int n, int k){
+		if(k < 0 || k > n){
+			return 0;
+		}
+		k = Math.min(k, n - k);
+		BigInteger result = BigInteger.ONE;
+		for(int i = 1; i <= k; ++i){
+			result = result.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+		}
+		return result.bitLength() < Long.SIZE - 1 ? result.longValue() : UNRANKABLE;
+	}
+	
+	private static final long UNRANKABLE = -1;
+	
+  /**
+   * <p>Returns an Iterator over the combinations, each as a new list that the caller may 
+   * keep.</p>
+   * @return an Iterator over the combinations
+   */
 	@Override
 	public Iterator<List<T>> iterator(){
-		return new ComboIterator();
+		return Spliterators.iterator(spliterator());
 	}
 	
   /**
-   * <p>A combination-navigating iterator for this ComboGen's underlying collection.</p>
-   * <p>Produces collections of varying sizes from this ComboGen's underlying collection, starting
-   * from a size of minMag and increasing to maxMag.</p>
+   * <p>Returns a Spliterator over the combinations, each as a new list that the caller may keep, 
+   * which splits by rank like {@link #indexSpliterator() indexSpliterator()}.</p>
+   * @return a Spliterator over the combinations
    */
-	private class ComboIterator implements Iterator<List<T>>{
+	@Override
+	public Spliterator<List<T>> spliterator(){
+		return new ListSpliterator(indexSpliterator());
+	}
+	
+  /**
+   * <p>Returns a Spliterator over the combinations, each as an array of the indices in the source 
+   * of its elements, in increasing order.</p>
+   * <p>The array passed to the action is a view that is overwritten with the next combination; so,
+   * it must not be modified or kept after the action returns. A Spliterator reuses one array per 
+   * combination size, and a Spliterator split off from it has arrays of its own.</p>
+   * <p>If the total number of combinations fits in a {@code long}, the returned Spliterator is 
+   * {@link Spliterator#SIZED sized} and splits in half by rank; otherwise, it does not split.</p>
+   * @return a Spliterator over the combinations, each as an array of source indices
+   */
+	public Spliterator<int[]> indexSpliterator(){
+		return firstRanks == null 
+		    ? new ComboSpliterator(0, Long.MAX_VALUE) 
+		    : new ComboSpliterator(0, firstRanks[firstRanks.length - 1]);
+	}
+	
+  /**
+   * <p>A Spliterator over the combinations whose ranks are in a certain range, each presented as a
+   * reusable array of source indices.</p>
+   */
+	private class ComboSpliterator implements Spliterator<int[]>{
 		
-		private int currentSize;
-		private BigInteger combo;
+		private long rank;
+		private final long end;
 		
-		private ComboIterator(){
-			this.currentSize = minSize;
-			if(sizeInRange()){
-				this.combo = firstCombo(currentSize);
-			}
-		}
+    /**
+     * <p>The size of the current combination, or {@value #UNPOSITIONED} if the combination at 
+     * {@link #rank} has not been built yet.</p>
+     */
+		private int size;
 		
-		@Override
-		public boolean hasNext(){
-			return sizeInRange();
-		}
+		private int[] view;
+		
+    /**
+     * <p>The current combination as a bitstring, if the source is small enough.</p>
+     */
+		private long bits;
 		
-		private boolean sizeInRange(){
-			return minSize <= currentSize && currentSize <= maxSize;
+		private final boolean useBits = source.size() <= MAX_WORD_SOURCE_SIZE;
+		
+		private ComboSpliterator(long rank, long end){
+			this.rank = rank;
+			this.end = end;
+			this.size = UNPOSITIONED;
 		}
 		
 		@Override
-		public List<T> next(){
-			if(!sizeInRange()){
-				throw new NoSuchElementException();
+		public boolean tryAdvance(Consumer<? super int[]> action){
+			if(rank >= end){
+				return false;
 			}
-			List<T> result = genComboList(combo);
-			updatePosition();
-			return result;
-		}
-		
-		private List<T> genComboList(BigInteger combo){
-			List<T> result = new ArrayList<>(currentSize);
-			for(int i = 0; i < source.size(); ++i){
-				if(combo.testBit(i)){
-					result.add(source.get(i));
+			if(size == UNPOSITIONED){
+				if(!position()){
+					return false;
 				}
+			} else if(!step()){
+				return false;
 			}
-			return result;
+			rank++;
+			action.accept(view);
+			return true;
 		}
 		
-		private void updatePosition(){
-			if(finalCombo(currentSize).equals(combo)){ //maximum lateral position at this height
-				currentSize++; //move to next height
-				if(currentSize <= maxSize){ //this height is legal
-					combo = firstCombo(currentSize);
+    /**
+     * <p>Builds the combination at {@link #rank}.</p>
+     * @return true if there is a combination at {@code rank}, false otherwise
+     */
+		private boolean position(){
+			if(firstRanks == null){
+				if(minSize > maxSize){
+					return false;
+				}
+				first(minSize);
+				for(long r = 0; r < rank; ++r){
+					if(!step()){
+						return false;
+					}
 				}
-			} else{ //nonmaximum lateral position. proceed to next lateral position
-				combo = comboAfter(combo);
+				return true;
 			}
+			
+			int k = minSize;
+			while(firstRanks[k - minSize + 1] <= rank){
+				k++;
+			}
+			unrank(k, rank - firstRanks[k - minSize]);
+			return true;
 		}
 		
     /**
-     * <p>Returns a BigInteger {@link #genComboList(BigInteger) pointing} to the first
-     * {@code size} elements from {@code list}.</p>
-     * @param size the size of the combo whose backing bitstring is returned
-     * @return a BigInteger {@link #genComboList(BigInteger) pointing} to the first {@code size}
-     * elements from {@code list}
-     */
-		private BigInteger finalCombo(int size){
-			return finalComboCache.apply(size);
-		}
-
-    private final IntFunction<BigInteger> finalComboCache = new IntFunction<BigInteger>(){
-      Integer input = null;
-      BigInteger output = null;
-      
-      @Override
-      public BigInteger apply(int in){
-        if(!Objects.equals(input, in)){
-          input = in;
-          output = leastCombo(in);
-        }
-        return output;
-      }
-    };
-    
-    private BigInteger leastCombo(int size){
-      BigInteger result = BigInteger.ZERO;
-      for(int i = 0; i < size; ++i){
-        result = result.setBit(i);
-      }
-      return result;
-    }
-    
-    /**
-     * <p>Returns a BigInteger {@link #genComboList(BigInteger) pointing} to the last
-     * {@code size} elements from {@code list}.</p>
-     * @param size the size of the combo whose backing bitstring is returned
-     * @return a BigInteger {@link #genComboList(BigInteger) pointing} to the last {@code size}
-     * elements from {@code list}
+     * <p>Moves to the combination after the current one.</p>
+     * @return true if there is a combination after the current one, false otherwise
      */
-		private BigInteger firstCombo(int size){
-			return greatestCombo(size);
+		private boolean step(){
+			if(stepWithinSize()){
+				return true;
+			}
+			if(size == maxSize){
+				return false;
+			}
+			first(size + 1);
+			return true;
 		}
 		
     /**
-     * </p>Returns a BigInteger having the greatest numerical value of any BigInteger
-     * {@link #genComboList(BigInteger) pointing} to a combination of the current size. The
-     * value returned is equal to {@code (2^(size+1) - 1) * 2^(source.size() - size)}, which
-     * equals {@code 2^(source.size()+1) - 2^(source.size() - size)}.</p>
-     * @param size the number of set bits in the BigIteger returned
-     * @return a BigInteger having the greatest numerical value of any BigInteger
-     * {@link #genComboList(BigInteger) pointing} to a combination of the current size
+     * <p>Moves to the combination after the current one if it has the same size, by moving the 
+     * lowest element that has a free index below it down by one and packing the elements below 
+     * that right under it.</p>
+     * @return true if the current combination was not the last of its size, false otherwise
      */
-		private BigInteger greatestCombo(int size){
-			if(greatestComboCache.containsKey(size)){
-				return greatestComboCache.get(size);
+		private boolean stepWithinSize(){
+			if(useBits){
+				long least = (1L << size) - 1;
+				if(bits == least){
+					return false;
+				}
+				
+				//the combination before this one is the complement of the combination after the 
+				//complement, which Gosper's hack finds
+				long all = (1L << source.size()) - 1;
+				long complement = ~bits & all;
+				long lowest = complement & -complement;
+				long ripple = complement + lowest;
+				complement = (((ripple ^ complement) >>> 2) / lowest) | ripple;
+				bits = ~complement & all;
+				
+				long remaining = bits;
+				for(int i = 0; i < size; ++i){
+					view[i] = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+				}
+				return true;
 			}
 			
-			BigInteger result = BigInteger.ZERO;
-			for(int i = source.size() - size; i < source.size(); ++i){
-				result = result.setBit(i);
+			int j = 0;
+			while(j < size && view[j] == j){
+				++j;
 			}
-			
-			greatestComboCache.put(size, result);
-			return result;
+			if(j == size){
+				return false;
+			}
+			view[j]--;
+			for(int i = j - 1; i >= 0; --i){
+				view[i] = view[i + 1] - 1;
+			}
+			return true;
 		}
 		
-		private final Map<Integer, BigInteger> greatestComboCache = new HashMap<>();
-		
-		/** 
-     * <p>This implementation, which pulls ones down to lower indices, is tied to the fact that the 
-     * first combo is the greatest value and the final combo is the least value. If that 
-     * relationship between combo precedence and the numerical size of the combo ever changes, this 
-     * method needs to be adapted to the new relationship.</p>
-     * <p>The combo after a given combo is determined by moving the lowest-indexed movable set bit 
-     * to an index lower by 1. A set bit is movable if the bit at index 1 lower than the movable bit
-     * is 0.</p>
-     * @param combo a BigInteger whose bits encode a combination of the elements pertaining to this 
-     * ComboGen
-     * @return a BigInteger encoding the combination after {@code combo}
+    /**
+     * <p>Moves to the first combination of size {@code k}, made of the last {@code k} 
+     * elements of the source.</p>
+     * @param k the size of the new current combination
      */
-		private BigInteger comboAfter(BigInteger combo){
-			int swapIndex = lowerableOne(combo);
-			int onesBelow = bitsSetToTheRight(swapIndex, combo);
-			
-			//swap the 1 with the 0 to the right of it
-			BigInteger result = combo.clearBit(swapIndex);
-			swapIndex--;
-			result = result.setBit(swapIndex);
-			swapIndex--;
-			
-			//move all the 1s from the right of the swapped 0 to a position immediately to the right of 
-			//the swapped 0's initial position
-			for(int onesSet = 0; onesSet < onesBelow; ++onesSet){
-				result = result.setBit(swapIndex);
-				swapIndex--;
+		private void first(int k){
+			resize(k);
+			int n = source.size();
+			for(int i = 0; i < k; ++i){
+				view[i] = n - k + i;
 			}
-			
-			//fill the space between the rightmost moved 1 and the ones' place of the BigInteger with 0s
-			while(swapIndex >= 0){
-				result = result.clearBit(swapIndex);
-				swapIndex--;
-			}
-			
-			return result;
+			updateBits();
 		}
 		
     /**
-     * <p>Returns the lowest index in {@code combo} of a {@link BigInteger#testBit(int) 1} such
-     * that the bit at the next lower index is 0. If no such bit exists in {@code combo}, then
-     * {@code source.size()} is returned.</p>
-     * @param combo the combo whose lowest-index 1 with a 0 immediately below it (in terms of
-     * index) is returned
-     * @return the lowest index in {@code combo} of a {@link BigInteger#testBit(int) 1} such
-     * that the bit at the next lower index is 0, or {@code source.size()} if no such bit exists
-     * in {@code combo}
+     * <p>Moves to the combination of size {@code k} whose rank among combinations of that size is
+     * {@code r}.</p>
+     * <p>Ranked in the opposite order, by increasing bitstring, the combination's elements 
+     * {@code c[0] < ... < c[k-1]} are the unique indices such that the rank is the sum of 
+     * {@code binomial(c[i], i + 1)}. They are found greedily from the greatest down.</p>
+     * @param k the size of the new current combination
+     * @param r the rank of the new current combination among combinations of size {@code k}
      */
-		private int lowerableOne(BigInteger combo){
-			int i = 0;
-			for(; i < source.size() - 1; ++i){
-				if(!combo.testBit(i) && combo.testBit(i + 1)){
-					break;
+		private void unrank(int k, long r){
+			resize(k);
+			long m = binomial(source.size(), k) - 1 - r;
+			int c = source.size() - 1;
+			for(int i = k; i > 0; --i){
+				long b;
+				while((b = binomial(c, i)) > m){
+					--c;
 				}
+				view[i - 1] = c;
+				m -= b;
+				--c;
 			}
-			return i + 1;
+			updateBits();
 		}
 		
-    /**
-     * <p>Returns the number of 1s in {@code combo} at indices less than {@code swapIndex}.</p>
-     * @param swapIndex the index in {@code combo} below which 1s are counted
-     * @param combo the BigInteger from which 1s are counted
-     * @return the number of 1s in {@code combo} at indices less than
-     */
-		private int bitsSetToTheRight(int swapIndex, BigInteger combo){
-			int result = 0;
-			for(int i = swapIndex - 1; i >= 0; --i){
-				if(combo.testBit(i)){
-					++result;
+		private void resize(int k){
+			if(view == null || view.length != k){
+				view = new int[k];
+			}
+			size = k;
+		}
+		
+		private void updateBits(){
+			if(useBits){
+				bits = 0;
+				for(int i : view){
+					bits |= 1L << i;
 				}
 			}
-			return result;
+		}
+		
+		@Override
+		public Spliterator<int[]> trySplit(){
+			if(firstRanks == null || end - rank < MIN_SPLIT){
+				return null;
+			}
+			long mid = rank + (end - rank) / 2;
+			Spliterator<int[]> prefix = new ComboSpliterator(rank, mid);
+			rank = mid;
+			size = UNPOSITIONED;
+			return prefix;
+		}
+		
+		@Override
+		public long estimateSize(){
+			return firstRanks == null ? Long.MAX_VALUE : end - rank;
+		}
+		
+		@Override
+		public int characteristics(){
+			return ORDERED | NONNULL | (firstRanks == null ? 0 : SIZED | SUBSIZED);
+		}
+	}
+	
+	private static final int UNPOSITIONED = -1;
+	
+	private static final int MIN_SPLIT = 2;
+	
+  /**
+   * <p>A Spliterator over the combinations as lists, which turns each index array from a 
+   * {@link ComboSpliterator} into a new list of source elements.</p>
+   */
+	private class ListSpliterator implements Spliterator<List<T>>{
+		
+		private final Spliterator<int[]> indices;
+		
+		private ListSpliterator(Spliterator<int[]> indices){
+			this.indices = indices;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super List<T>> action){
+			return indices.tryAdvance((view) -> {
+				List<T> combo = new ArrayList<>(view.length);
+				for(int i : view){
+					combo.add(source.get(i));
+				}
+				action.accept(combo);
+			});
+		}
+		
+		@Override
+		public Spliterator<List<T>> trySplit(){
+			Spliterator<int[]> prefix = indices.trySplit();
+			return prefix == null ? null : new ListSpliterator(prefix);
+		}
+		
+		@Override
+		public long estimateSize(){
+			return indices.estimateSize();
+		}
+		
+		@Override
+		public int characteristics(){
+			return indices.characteristics();
 		}
 	}
 }
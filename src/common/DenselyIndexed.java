@@ -0,0 +1,20 @@
+package common;
+
+/**
+ * <p>An object that carries its own small, non-negative index, letting a {@link Universe} of such 
+ * objects find an element's position with an array offset instead of a hash-table lookup.</p>
+ * <p>Objects that may be put in the same Universe should have distinct indices, and objects that 
+ * are {@link Object#equals(Object) equal} must have the same index. A Universe checks that its 
+ * elements' indices are distinct and close enough together to be worth an array, and hashes its 
+ * elements as usual if they aren't.</p>
+ * @author fiveham
+ */
+public interface DenselyIndexed {
+	
+  /**
+   * <p>Returns this object's index, which is non-negative, distinct from the indices of the other 
+   * objects that may share a Universe with this one, and as small as practical.</p>
+   * @return this object's index
+   */
+	public int denseIndex();
+}
@@ -4,7 +4,9 @@ import java.util.List;
 import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.Spliterator;
 import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +61,111 @@ public class NCuboid<T> implements Iterable<List<T>> {
 		return new CubeIterator();
 	}
 	
+  /**
+   * <p>Returns the number of positions in this NCuboid, the product of the sizes of its 
+   * dimensions.</p>
+   * @return the number of positions in this NCuboid
+   * @throws ArithmeticException if the number of positions does not fit in a {@code long}
+   */
+	public long size(){
+		long result = 1;
+		for(int max : key){
+			result = Math.multiplyExact(result, max + 1);
+		}
+		return result;
+	}
+	
+  /**
+   * <p>Writes into {@code coords} the position in this NCuboid whose linear index is 
+   * {@code index}, as the index in each dimension of that position's element in that dimension. 
+   * Linear indices follow the order of {@link #iterator() iteration}, in which the first dimension 
+   * is the lowest-order digit.</p>
+   * @param index the linear index of a position in this NCuboid
+   * @param coords an array with one element per dimension, to which the position is written
+   * @return {@code coords}
+   */
+	public int[] coordinates(long index, int[] coords){
+		for(int i = 0; i < key.length; ++i){
+			coords[i] = (int) (index % (key[i] + 1));
+			index /= key[i] + 1;
+		}
+		return coords;
+	}
+	
+  /**
+   * <p>Returns a Spliterator over the positions in this NCuboid, in the same order as 
+   * {@link #iterator() iterator()}, each as an array of the index in each dimension of that 
+   * position's element in that dimension.</p>
+   * <p>The array passed to the action is a view that is overwritten with the next position; so, 
+   * it must not be modified or kept after the action returns. The returned Spliterator splits its 
+   * range of linear indices in half, which splits the NCuboid across its highest-order 
+   * dimensions first, and a Spliterator split off from it has an array of its own.</p>
+   * @return a Spliterator over the positions in this NCuboid as reusable coordinate arrays
+   */
+	public Spliterator<int[]> coordinateSpliterator(){
+		return new CoordinateSpliterator(0, size());
+	}
+	
+	private class CoordinateSpliterator implements Spliterator<int[]>{
+		
+		private long index;
+		private final long end;
+		private final int[] coords;
+		private boolean positioned;
+		
+		private CoordinateSpliterator(long index, long end){
+			this.index = index;
+			this.end = end;
+			this.coords = new int[key.length];
+			this.positioned = false;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super int[]> action){
+			if(index >= end){
+				return false;
+			}
+			if(positioned){
+				//index < size(), so the carry stops at some digit below its maximum
+				int i = 0;
+				for(; coords[i] == key[i]; ++i){
+					coords[i] = 0;
+				}
+				coords[i]++;
+			} else{
+				coordinates(index, coords);
+				positioned = true;
+			}
+			index++;
+			action.accept(coords);
+			return true;
+		}
+		
+		@Override
+		public Spliterator<int[]> trySplit(){
+			if(end - index < MIN_SPLIT){
+				return null;
+			}
+			long mid = index + (end - index) / 2;
+			Spliterator<int[]> prefix = new CoordinateSpliterator(index, mid);
+			index = mid;
+			positioned = false;
+			return prefix;
+		}
+		
+		@Override
+		public long estimateSize(){
+			return end - index;
+		}
+		
+		@Override
+		public int characteristics(){
+			return ORDERED | NONNULL | SIZED | SUBSIZED;
+		}
+	}
+	
+	private static final int MIN_SPLIT = 2;
+	
     /**
      * <p>An Iterator which keeps track of its position in an N-dimensional cuboid defined by the
      * dimensions specified as elements of {@code src}.</p>
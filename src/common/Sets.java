@@ -47,4 +47,34 @@ public class Sets {
 		
 		return result;
 	}
+	
+  /**
+   * <p>Unions the collections in {@code collections} and counts how many times each element is
+   * present, like {@link #countingUnion(Stream)}, but counts in an array indexed by each element's 
+   * {@link Universe#index(Object) index} in {@code universe} instead of in a Map, so that no 
+   * Integers are boxed.</p>
+   * @param <T> the type of the elements being counted
+   * @param universe a Universe containing every element of the collections in {@code collections}
+   * @param collections a stream of collections whose elements are counted
+   * @return an array, as long as {@code universe} is large, of the number of times each element of 
+   * {@code universe} occurs among the collections in {@code collections}
+   * @throws IllegalArgumentException if any of the counted elements is not in {@code universe}
+   */
+	public static <T> int[] countingUnion(
+	    Universe<T> universe, Stream<? extends Collection<? extends T>> collections){
+		
+		int[] result = new int[universe.size()];
+		
+		collections.sequential().forEach((collection) -> {
+			for(T t : collection){
+				int index = universe.index(t);
+				if(index < 0){
+					throw new IllegalArgumentException(t + " is not in the specified Universe");
+				}
+				result[index]++;
+			}
+		});
+		
+		return result;
+	}
 }
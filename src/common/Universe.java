@@ -1,6 +1,7 @@
 package common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,8 +13,12 @@ import java.util.stream.Stream;
 
 /**
  * <p>A special immutable collection where each element maps one-to-one with an integer. Used as a 
- * backing for BackedSets, which identify their elements as indices in a BigInteger; such an index 
- * is the integer corresponding to the element in that BackedSet's Universe.</p>
+ * backing for BackedSets, which identify their elements as bit indices in an array of 
+ * {@code long} words; such an index is the integer corresponding to the element in that 
+ * BackedSet's Universe.</p>
+ * <p>If every element is {@link DenselyIndexed densely indexed}, and their dense indices are 
+ * distinct and not spread out too far, an element's index in this Universe is found by looking up 
+ * its dense index in an array. Otherwise, it is found in a hash table.</p>
  * @author fiveham
  * @param <E> the type of the elements of this universe and the parameter-type of BackedSets built 
  * on this Universe
@@ -22,19 +27,54 @@ import java.util.stream.Stream;
 public class Universe<E> {
 	
 	private final List<E> indexToElement;
+	
+  /**
+   * <p>The index in this Universe of each element, by element, or null if the elements' indices 
+   * are found with {@link #denseToIndex}.</p>
+   */
 	private final Map<E, Integer> elementToIndex;
 	
+  /**
+   * <p>The index in this Universe of each element, by the element's 
+   * {@link DenselyIndexed#denseIndex() dense index} minus {@link #denseOffset}, with 
+   * {@value #INDEX_IF_ABSENT} for dense indices that no element has, or null if the elements' 
+   * indices are found with {@link #elementToIndex}.</p>
+   */
+	private final int[] denseToIndex;
+	
+	private final int denseOffset;
+	
 	/**
 	 * <p>Constructs a Universe containing exactly the elements of {@code c}.</p>
 	 * @param c a set whose elements will become this Universe
 	 */
 	public Universe(Set<? extends E> c){
-		this.indexToElement = Collections.unmodifiableList(new ArrayList<>(c));
-		Map<E, Integer> elementToIndex = new HashMap<>();
-		for(int i = 0; i < indexToElement.size(); ++i){
-			elementToIndex.put(indexToElement.get(i), i);
+		this(new ArrayList<E>(c));
+	}
+	
+	/**
+	 * <p>Constructs a Universe containing exactly the elements of {@code c}, which must be distinct, 
+	 * with each element's index being its position in {@code c}.</p>
+	 * @param c a list whose elements will become this Universe, in order
+	 */
+	public Universe(List<? extends E> c){
+		this.indexToElement = Collections.unmodifiableList(new ArrayList<E>(c));
+		
+		int min = minDenseIndex(indexToElement);
+		int[] dense = min == INDEX_IF_ABSENT ? null : denseIndices(indexToElement, min);
+		if(dense == null){
+			Map<E, Integer> elementToIndex = new HashMap<>();
+			for(int i = 0; i < indexToElement.size(); ++i){
+				elementToIndex.put(indexToElement.get(i), i);
+			}
+			this.elementToIndex = Collections.unmodifiableMap(elementToIndex);
+			this.denseToIndex = null;
+			this.denseOffset = 0;
+		} else{
+			this.elementToIndex = null;
+			this.denseToIndex = dense;
+			this.denseOffset = min;
 		}
-		this.elementToIndex = Collections.unmodifiableMap(elementToIndex);
 	}
 	
 	/**
@@ -42,22 +82,100 @@ public class Universe<E> {
 	 * @param s a stream whose contents will become this Universe
 	 */
 	public Universe(Stream<? extends E> s){
-		this.indexToElement = 
-		    Collections.unmodifiableList(new ArrayList<>(s.collect(Collectors.toSet())));
-		Map<E, Integer> elementToIndex = new HashMap<>();
-		for(int i = 0; i < indexToElement.size(); ++i){
-			elementToIndex.put(indexToElement.get(i), i);
+		this(new ArrayList<E>(s.collect(Collectors.toSet())));
+	}
+	
+  /**
+   * <p>Returns the least {@link DenselyIndexed#denseIndex() dense index} of any of 
+   * {@code elements}, 0 if there are none, or {@value #INDEX_IF_ABSENT} if any of them is not 
+   * densely indexed or has a negative dense index.</p>
+   * @param elements the elements of this Universe
+   * @return the least dense index of any of {@code elements}, 0 if there are none, or -1 if they 
+   * can't all be densely indexed
+   */
+	private static int minDenseIndex(List<?> elements){
+		int min = elements.isEmpty() ? 0 : Integer.MAX_VALUE;
+		for(Object e : elements){
+			if(!(e instanceof DenselyIndexed) || ((DenselyIndexed) e).denseIndex() < 0){
+				return INDEX_IF_ABSENT;
+			}
+			min = Math.min(min, ((DenselyIndexed) e).denseIndex());
+		}
+		return min;
+	}
+	
+  /**
+   * <p>Builds the table from dense index, minus {@code min}, to index in this Universe for 
+   * {@code elements}, if their dense indices are distinct and span a range that is smaller than 
+   * {@value #SMALL_TABLE} or no more than {@value #MAX_DENSE_SPREAD} times as large as the number 
+   * of elements.</p>
+   * @param elements the elements of this Universe, in order, all densely indexed
+   * @param min the least dense index of any of {@code elements}
+   * @return the table from dense index to index in this Universe, or null if {@code elements} 
+   * can't be indexed that way
+   */
+	private static int[] denseIndices(List<?> elements, int min){
+		int max = min - 1;
+		for(Object e : elements){
+			max = Math.max(max, ((DenselyIndexed) e).denseIndex());
+		}
+		long spread = (long) max - min;
+		if(spread >= SMALL_TABLE && spread >= (long) MAX_DENSE_SPREAD * elements.size()){
+			return null;
+		}
+		
+		int[] result = new int[max - min + 1];
+		Arrays.fill(result, INDEX_IF_ABSENT);
+		for(int i = 0; i < elements.size(); ++i){
+			int slot = ((DenselyIndexed) elements.get(i)).denseIndex() - min;
+			if(result[slot] != INDEX_IF_ABSENT){
+				return null;
+			}
+			result[slot] = i;
 		}
-		this.elementToIndex = Collections.unmodifiableMap(elementToIndex);
+		return result;
 	}
 	
+	private static final int MAX_DENSE_SPREAD = 4;
+	
+  /**
+   * <p>The span of dense indices up to which a table is used no matter how few elements there 
+   * are, since a table that small is cheap to fill and is still faster to look up than a hash 
+   * table.</p>
+   */
+	private static final int SMALL_TABLE = 1 << 10;
+	
 	/**
 	 * <p>Returns true if {@code o} is in this Universe, false otherwise.</p>
 	 * @param o the object to be tested for its presence in this Universe
 	 * @return true if {@code o} is in this Universe, false otherwise
 	 */
 	public boolean contains(Object o){
-		return elementToIndex.containsKey(o);
+		return denseToIndex == null 
+		    ? elementToIndex.containsKey(o) 
+		    : denseIndexOf(o) != INDEX_IF_ABSENT;
+	}
+	
+  /**
+   * <p>Returns the index of {@code o} in this Universe, found by way of its dense index, or 
+   * {@value #INDEX_IF_ABSENT} if {@code o} is not in this Universe.</p>
+   * @param o an object
+   * @return the index of {@code o} in this Universe, or -1 if {@code o} is not in this Universe
+   */
+	private int denseIndexOf(Object o){
+		if(o instanceof DenselyIndexed){
+			int slot = ((DenselyIndexed) o).denseIndex() - denseOffset;
+			if(slot >= 0 && slot < denseToIndex.length){
+				int i = denseToIndex[slot];
+				if(i != INDEX_IF_ABSENT){
+					E e = indexToElement.get(i);
+					if(e == o || e.equals(o)){
+						return i;
+					}
+				}
+			}
+		}
+		return INDEX_IF_ABSENT;
 	}
 	
 	/**
@@ -85,10 +203,12 @@ public class Universe<E> {
    * @return the index of {@code e} in this Universe or -1 if {@code e} is not in this Universe
    */
 	public int index(E e){
-	  return elementToIndex.getOrDefault(e, INDEX_IF_ABSENT);
+	  return denseToIndex == null 
+	      ? elementToIndex.getOrDefault(e, INDEX_IF_ABSENT) 
+	      : denseIndexOf(e);
 	}
 	
-	private static final Integer INDEX_IF_ABSENT = -1;
+	private static final int INDEX_IF_ABSENT = -1;
 	
 	@Override
 	public int hashCode(){
@@ -100,11 +220,26 @@ public class Universe<E> {
 	
 	private Integer hash = null;
 	
+  /**
+   * <p>Returns true if {@code o} is a Universe with the same elements in the same order as this 
+   * one, false otherwise.</p>
+   * <p>A Universe is equal to itself without its elements being compared, and Universes of 
+   * different sizes or {@link #hashCode() hashcodes}, which are computed only once per Universe, 
+   * are unequal without their elements being compared.</p>
+   * @param o an object
+   * @return true if {@code o} is a Universe with the same elements in the same order as this one, 
+   * false otherwise
+   */
 	@Override
 	public boolean equals(Object o){
+		if(o == this){
+			return true;
+		}
 		if(o instanceof Universe<?>){
 			Universe<?> u = (Universe<?>) o;
-			return indexToElement.equals(u.indexToElement) && elementToIndex.equals(u.elementToIndex); 
+			return size() == u.size() 
+			    && hashCode() == u.hashCode() 
+			    && indexToElement.equals(u.indexToElement); 
 		}
 		return false;
 	}
@@ -1,7 +1,6 @@
 package common.graph;
 
 import common.BackedSet;
-import common.Sets;
 import common.Universe;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -77,59 +76,102 @@ public abstract class AbstractGraph<T extends Vertex<T>> implements Graph<T>{
 	
 	@Override
 	public Collection<Graph<T>> connectedComponents(Function<Set<T>, T> seedSrc){
-		List<Graph<T>> result = new ArrayList<>();
+		Universe<T> u = new Universe<>(nodes);
+		int[] labels = componentLabels(u);
 		
-		BackedSet<T> unassignedNodes = new Universe<>(nodes.stream()).back(nodes);
+		List<List<T>> members = new ArrayList<>();
+		for(int i = 0; i < labels.length; ++i){
+			if(labels[i] == members.size()){
+				members.add(new ArrayList<>());
+			}
+			members.get(labels[i]).add(nodes.get(i));
+		}
+		
+		List<Graph<T>> result = new ArrayList<>(members.size());
+		BackedSet<T> unassignedNodes = u.back(nodes);
 		while(!unassignedNodes.isEmpty()){
-		  if(needNewUniverseInstance(unassignedNodes)){
-		    unassignedNodes = new Universe<>(unassignedNodes).back(unassignedNodes);
-		  }
-		  
-			Graph<T> component = component(unassignedNodes, seedSrc);
-			result.add(component);
+			List<T> component = members.get(labels[u.index(seedSrc.apply(unassignedNodes))]);
+			unassignedNodes.removeAll(component);
+			result.add(new BasicGraph<T>(component));
 		}
 		
 		return result;
 	}
 	
-	/**
-	 * <p>Determines whether it would be a good idea for the while loop in 
-	 * {@link #connectedComponents(Function) connectedComponent()} to use a new Universe instance to 
-	 * back the sets used in subsequent calls to 
-	 * {@link component(BackedSet,Function) component()}.</p>
-	 * <p>Currently, this method is a placeholder and always returns true.</p>
-	 * @param unassigned the current set of nodes of this graph not assigned to a particular connected
-	 * component
-	 * @return true if connectedComponents needs to use a new Universe instance for its next call to 
-	 * component(), false otherwise
-	 */
-	private static boolean needNewUniverseInstance(BackedSet<?> unassigned){
-	  return true;
+  /**
+   * <p>Returns the label of the connected component of each vertex of this Graph, in the order of 
+   * {@link #iterator() iteration}. Components are labeled from 0 in the order of their first 
+   * vertices, so the number of components is one more than the greatest label.</p>
+   * <p>This finds the components without building a Graph for each one.</p>
+   * @return the label of the connected component of each vertex of this Graph
+   */
+	public int[] componentLabels(){
+		return componentLabels(new Universe<>(nodes));
+	}
+	
+  /**
+   * <p>Returns the number of connected components of this Graph.</p>
+   * @return the number of connected components of this Graph
+   */
+	public int componentCount(){
+		int count = 0;
+		for(int label : componentLabels()){
+			count = Math.max(count, label + 1);
+		}
+		return count;
+	}
+	
+  /**
+   * <p>Labels the connected components of this Graph with a disjoint-set forest over the indices 
+   * of its vertices in {@code u}, which are their positions in {@link #nodes nodes}. Each edge is 
+   * looked at once from each end, and each union keeps the lesser index as the root, so the root 
+   * of every component is its first vertex.</p>
+   * @param u a Universe of exactly this Graph's vertices, in the order of {@code nodes}
+   * @return the label of the connected component of each vertex of this Graph
+   */
+	private int[] componentLabels(Universe<T> u){
+		int[] parent = new int[nodes.size()];
+		for(int i = 0; i < parent.length; ++i){
+			parent[i] = i;
+		}
+		for(int i = 0; i < parent.length; ++i){
+			for(T neighbor : nodes.get(i).neighbors()){
+				int j = u.index(neighbor);
+				if(j >= 0){
+					int rootI = root(parent, i);
+					int rootJ = root(parent, j);
+					if(rootI < rootJ){
+						parent[rootJ] = rootI;
+					} else{
+						parent[rootI] = rootJ;
+					}
+				}
+			}
+		}
+		
+		int[] labels = new int[parent.length];
+		for(int i = 0, count = 0; i < parent.length; ++i){
+			int root = root(parent, i);
+			labels[i] = root == i ? count++ : labels[root];
+		}
+		return labels;
+	}
+	
+  /**
+   * <p>Returns the root of the tree containing {@code i} in the disjoint-set forest 
+   * {@code parent}, halving the path from {@code i} to it along the way.</p>
+   * @param parent the parent of each index in a disjoint-set forest
+   * @param i an index in {@code parent}
+   * @return the root of the tree containing {@code i}
+   */
+	private static int root(int[] parent, int i){
+		while(parent[i] != i){
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
 	}
 	
-  private Graph<T> component(BackedSet<T> unassignedNodes, Function<Set<T>, T> seedSrc){
-    Universe<T> u = unassignedNodes.universe();
-    Set<T> core = u.back();
-    Set<T> edge = u.back();
-    Set<T> cuttingEdge = u.back();
-    cuttingEdge.add(seedSrc.apply(unassignedNodes));
-    
-    while(!cuttingEdge.isEmpty()){
-      core.addAll(edge);
-      edge = cuttingEdge;
-      cuttingEdge = edge.stream()
-          .map(Vertex::neighbors)
-          .map(u::back)
-          .reduce(u.back(), Sets::mergeCollections);
-      
-      cuttingEdge.retainAll(unassignedNodes);
-      unassignedNodes.removeAll(cuttingEdge);
-    }
-    core.addAll(edge);
-    
-    return new BasicGraph<T>(core);
-  }
-  
 	@Override
 	public int hashCode(){
 		return nodeStream()
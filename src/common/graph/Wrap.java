@@ -2,9 +2,13 @@ package common.graph;
 
 import common.ComboGen;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +63,77 @@ public class Wrap<W> implements Vertex<Wrap<W>>{
 		return result;
 	}
 	
+  /**
+   * <p>A utility method that wraps each element of {@code unwrapped} and connects the resulting 
+   * Wraps whose raw nodes sit in adjacent cells of an integer grid: cells whose 
+   * {@code coordinates} differ by exactly 1 in exactly one dimension.</p>
+   * <p>This method connects the nodes in {@code O(n)} time where {@code n = unwrapped.size()} by 
+   * hashing each node's cell and looking up the next cell along each dimension, instead of 
+   * testing all possible pairs of nodes like {@link #wrap(Collection, BiPredicate) wrap()}.</p>
+   * <p>The generated edges are bidirectional.</p>
+   * @param unwrapped raw nodes
+   * @param coordinates outputs the coordinates of a raw node's cell, with the same number of 
+   * dimensions for every raw node
+   * @return a List of the elements of {@code unwrapped} wrapped and connected to the Wraps of the 
+   * raw nodes in adjacent cells
+   */
+	public static <W> List<Wrap<W>> wrapGrid(
+			Collection<W> unwrapped, 
+			Function<? super W, int[]> coordinates){
+		
+		List<Wrap<W>> result = new ArrayList<>(unwrapped.size());
+		Map<Cell, List<Wrap<W>>> grid = new HashMap<>();
+		for(W w : unwrapped){
+			Wrap<W> wrap = new Wrap<>(w);
+			result.add(wrap);
+			grid.computeIfAbsent(new Cell(coordinates.apply(w)), (cell) -> new ArrayList<>(1)).add(wrap);
+		}
+		
+		for(Map.Entry<Cell, List<Wrap<W>>> e : grid.entrySet()){
+			int[] next = e.getKey().coords.clone();
+			for(int dim = 0; dim < next.length; ++dim){
+				next[dim]++;
+				List<Wrap<W>> adjacent = grid.get(new Cell(next));
+				if(adjacent != null){
+					for(Wrap<W> wn1 : e.getValue()){
+						for(Wrap<W> wn2 : adjacent){
+							wn1.neighbors().add(wn2);
+							wn2.neighbors().add(wn1);
+						}
+					}
+				}
+				next[dim]--;
+			}
+		}
+		
+		return result;
+	}
+	
+  /**
+   * <p>A cell of the integer grid used by {@link #wrapGrid(Collection, Function) wrapGrid()}, as 
+   * a hash key.</p>
+   */
+	private static class Cell{
+		
+		private final int[] coords;
+		private final int hash;
+		
+		private Cell(int[] coords){
+			this.coords = coords;
+			this.hash = Arrays.hashCode(coords);
+		}
+		
+		@Override
+		public int hashCode(){
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object o){
+			return o instanceof Cell && Arrays.equals(coords, ((Cell) o).coords);
+		}
+	}
+	
   /**
    * <p>A utility method that connects the nodes in {@code wrapped} by brute force, trying every
    * pair of them and testing the pair using {@code edgeDetector}.</p>
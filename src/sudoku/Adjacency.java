@@ -0,0 +1,52 @@
+package sudoku;
+
+/**
+ * <p>The storage behind a {@link NodeSet}: a one-sided record of the nodes with which that NodeSet
+ * shares an edge.</p>
+ * <p>An Adjacency does not maintain the symmetry of edges. That is the job of the NodeSet that owns
+ * the Adjacency, which updates its own Adjacency and its neighbor's Adjacency together.</p>
+ * @author fiveham
+ * @param <T> the type of the nodes recorded
+ * @see Puzzle.Backend
+ */
+interface Adjacency<T> extends Iterable<T>{
+	
+  /**
+   * <p>Returns the number of nodes recorded.</p>
+   * @return the number of nodes recorded
+   */
+	public int size();
+	
+  /**
+   * <p>Returns true if {@code o} is recorded, false otherwise.</p>
+   * @param o an object to test
+   * @return true if {@code o} is recorded, false otherwise
+   */
+	public boolean contains(Object o);
+	
+  /**
+   * <p>Records {@code t}.</p>
+   * @param t a node to record
+   * @return true if {@code t} was not recorded before this call, false otherwise
+   */
+	public boolean add(T t);
+	
+  /**
+   * <p>Stops recording {@code o}.</p>
+   * @param o an object to stop recording
+   * @return true if {@code o} was recorded before this call, false otherwise
+   */
+	public boolean remove(Object o);
+	
+  /**
+   * <p>Returns an Adjacency for {@code owner}, the counterpart of this Adjacency's owner in a 
+   * {@link Puzzle#fork() fork} of that owner's puzzle. The returned Adjacency either records the 
+   * counterparts of the nodes recorded here or is empty, in which case the caller must link 
+   * them.</p>
+   * <p>Nothing recorded here may be changed while the fork is being made.</p>
+   * @param owner the counterpart of this Adjacency's owner in the fork
+   * @return an Adjacency for {@code owner} that records either the counterparts of all the nodes 
+   * recorded here or nothing
+   */
+	public Adjacency<T> fork(NodeSet<?, ?> owner);
+}
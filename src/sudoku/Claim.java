@@ -1,5 +1,8 @@
 package sudoku;
 
+import common.Bits;
+import java.util.HashSet;
+import java.util.Set;
 import sudoku.Puzzle.IndexValue;
 
 /**
@@ -11,13 +14,6 @@ public class Claim extends NodeSet<Fact, Claim>{
 	
 	private static final long serialVersionUID = -2402719833037606449L;
 	
-  /**
-   * <p>The initial number of {@link #neighbors() Rules to which this Claim belongs}. It is the
-   * number of {@link Puzzle.RuleType types} of Rules that can hold the same Claim in common: a 
-   * cell, a box, a column, and a row.</p>
-   */
-	private static final int INIT_OWNER_COUNT = Puzzle.RuleType.values().length;
-	
 	private final IndexValue x;
 	private final IndexValue y;
 	private final IndexValue z;
@@ -32,12 +28,34 @@ public class Claim extends NodeSet<Fact, Claim>{
    * @param z the z-coordinate of this Claim in claim-space
    */
 	public Claim(Puzzle puzzle, IndexValue x, IndexValue y, IndexValue z) {
-		super(puzzle, INIT_OWNER_COUNT, linearizeCoords(x.intValue(), y.intValue(), z.intValue(), puzzle.sideLength()));
+		this(
+		    puzzle, 
+		    linearizeCoords(x.intValue(), y.intValue(), z.intValue(), puzzle.sideLength()), 
+		    x, 
+		    y, 
+		    z);
+	}
+	
+	private Claim(Puzzle puzzle, int id, IndexValue x, IndexValue y, IndexValue z){
+		super(puzzle, puzzle.topology().claimRules(id), id);
 		this.x = x;
 		this.y = y;
 		this.z = z;
 	}
 	
+  /**
+   * <p>Constructs the counterpart of {@code original} in {@code fork}.</p>
+   * @param fork a {@link Puzzle#fork() fork} of {@code original}'s puzzle
+   * @param original the Claim whose counterpart is constructed
+   * @see NodeSet#NodeSet(Puzzle, NodeSet)
+   */
+	Claim(Puzzle fork, Claim original){
+		super(fork, original);
+		this.x = fork.indexValues().get(original.x.intValue());
+		this.y = fork.indexValues().get(original.y.intValue());
+		this.z = fork.indexValues().get(original.z.intValue());
+	}
+	
   /**
    * <p>Sets this Claim false. Removes all elements from this set, and removes this Claim from all
    * its neighbors.</p>
@@ -49,6 +67,65 @@ public class Claim extends NodeSet<Fact, Claim>{
 		return size() != initSize;
 	}
 	
+  /**
+   * <p>Returns this Claim's {@link NodeSet#id() id}, since Claims come first among the dense 
+   * indices of a puzzle's nodes.</p>
+   * @return this Claim's id
+   */
+	@Override
+	public int denseIndex(){
+		return id;
+	}
+	
+	@Override
+	Fact neighbor(int id){
+		return puzzle.fact(id);
+	}
+	
+	@Override
+	void linked(Fact newNeighbor){
+		if(size() == 1){
+			puzzle.claimRevived(this);
+		}
+	}
+	
+	@Override
+	void unlinked(Fact formerNeighbor){
+		puzzle.trail().removed(this, formerNeighbor);
+		if(isEmpty()){
+			puzzle.claimFalsified(this);
+		}
+	}
+	
+  /**
+   * <p>Returns a set of the Claims that share at least one Fact with this Claim, other than this 
+   * Claim itself.</p>
+   * <p>Since edges are only ever removed from a Claim all at once, when it is set false, the Claims 
+   * visible to a Claim that is not false are exactly those of its peers in the puzzle's 
+   * {@link Topology topology} that are not false. So, rather than merging the contents of its 
+   * Facts, this intersects its precomputed peer bitstring with the puzzle's bitstring of Claims not 
+   * yet set false, a few words at a time.</p>
+   * @return a set of the Claims that share at least one Fact with this Claim, other than this Claim 
+   * itself
+   */
+	@Override
+	public Set<Claim> visible(){
+		Set<Claim> result = new HashSet<>();
+		if(isEmpty()){
+			return result;
+		}
+		int[] wordIndices = puzzle.topology().peerWordIndices(id);
+		long[] words = puzzle.topology().peerWords(id);
+		for(int i = 0; i < words.length; ++i){
+			long word = words[i] & puzzle.liveClaimWord(wordIndices[i]);
+			int offset = wordIndices[i] * Bits.BITS_PER_WORD;
+			for(; word != 0; word &= word - 1){
+				result.add(puzzle.claim(offset + Long.numberOfTrailingZeros(word)));
+			}
+		}
+		return result;
+	}
+	
 	/**
    * <p>Returns the x-coordinate of this Claim in claim-space.</p>
    * @return the x-coordinate of this Claim in claim-space
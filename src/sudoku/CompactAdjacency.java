@@ -0,0 +1,284 @@
+package sudoku;
+
+import common.Bits;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>An Adjacency that records nodes by their {@link NodeSet#id() ids} in a primitive array rather
+ * than by reference in a hash table. This is the storage used by a {@link Puzzle} with the
+ * {@link Puzzle.Backend#COMPACT COMPACT} backend.</p>
+ * <p>Each node ever recorded gets a slot, in the order in which the nodes were first recorded.
+ * Which slots are currently recorded is tracked by a bitstring, so removing a node and re-adding it
+ * never moves other nodes. Ids are turned back into nodes by the {@link NodeSet#neighbor(int) owner}
+ * of this Adjacency.</p>
+ * <p>Testing whether a node is recorded takes time linear in the number of slots, but that number is
+ * at most the side-length of the puzzle for a Fact and at most five for a Claim, and there are no
+ * hash-table entries or boxed values per edge.</p>
+ * <p>Either array may be shared with another CompactAdjacency, in which case it is copied the first
+ * time this CompactAdjacency would write to it. That lets a node built from its puzzle's 
+ * {@link Topology topology} share the topology's ids, and lets a {@link Puzzle#fork() fork} of a 
+ * puzzle share all the edge state of the original until one of them changes.</p>
+ * @author fiveham
+ * @param <T> the type of the nodes recorded
+ */
+class CompactAdjacency<T extends NodeSet<?, ?>> implements Adjacency<T>, Serializable{
+	
+	private static final long serialVersionUID = 5043950311846000529L;
+	
+	private final NodeSet<?, ?> owner;
+	private int[] slots;
+	private int slotCount;
+	private long[] live;
+	private int size;
+	private int modCount;
+	
+  /**
+   * <p>True if {@link #slots} may be referenced by someone else and must be copied before a slot is
+   * appended.</p>
+   */
+	private boolean sharedSlots;
+	
+  /**
+   * <p>True if {@link #live} may be referenced by someone else and must be copied before a bit is
+   * changed.</p>
+   */
+	private boolean sharedLive;
+	
+  /**
+   * <p>Constructs a CompactAdjacency for {@code owner} with room for {@code expectedSize} nodes
+   * before its arrays need to grow.</p>
+   * @param owner the NodeSet backed by this Adjacency, which resolves ids into nodes
+   * @param expectedSize the number of nodes expected to be recorded
+   */
+	CompactAdjacency(NodeSet<?, ?> owner, int expectedSize){
+		this.owner = owner;
+		this.slots = new int[expectedSize];
+		this.slotCount = 0;
+		this.live = new long[Bits.wordCount(expectedSize)];
+		this.size = 0;
+		this.modCount = 0;
+		this.sharedSlots = false;
+		this.sharedLive = false;
+	}
+	
+  /**
+   * <p>Constructs a CompactAdjacency for {@code owner} that records the nodes whose ids are in 
+   * {@code template}.</p>
+   * <p>{@code template} itself is used as the slot array, without copying, until a new slot is 
+   * needed.</p>
+   * @param owner the NodeSet backed by this Adjacency, which resolves ids into nodes
+   * @param template the ids of the nodes recorded, which is shared and must not be modified
+   */
+	CompactAdjacency(NodeSet<?, ?> owner, int[] template){
+		this.owner = owner;
+		this.slots = template;
+		this.slotCount = template.length;
+		this.live = new long[Bits.wordCount(template.length)];
+		for(int i = 0; i < slotCount; ++i){
+			Bits.set(live, i);
+		}
+		this.size = slotCount;
+		this.modCount = 0;
+		this.sharedSlots = true;
+		this.sharedLive = false;
+	}
+	
+  /**
+   * <p>Constructs a CompactAdjacency for {@code owner} that shares both arrays of {@code original} 
+   * and marks them shared on both sides, so that whichever of the two writes first copies them.</p>
+   * @param owner the NodeSet backed by this Adjacency, which resolves ids into nodes
+   * @param original the CompactAdjacency whose state is shared
+   */
+	private CompactAdjacency(NodeSet<?, ?> owner, CompactAdjacency<T> original){
+		this.owner = owner;
+		this.slots = original.slots;
+		this.slotCount = original.slotCount;
+		this.live = original.live;
+		this.size = original.size;
+		this.modCount = 0;
+		this.sharedSlots = original.sharedSlots = true;
+		this.sharedLive = original.sharedLive = true;
+	}
+	
+  /**
+   * <p>Returns a CompactAdjacency for {@code owner} that shares this one's arrays. Ids are resolved
+   * by {@code owner}; so, the new CompactAdjacency records the counterparts, in the fork, of the 
+   * nodes recorded here.</p>
+   * @param owner the counterpart of this CompactAdjacency's owner in the fork
+   * @return a CompactAdjacency for {@code owner} that shares this one's arrays
+   */
+	@Override
+	public Adjacency<T> fork(NodeSet<?, ?> owner){
+		return new CompactAdjacency<>(owner, this);
+	}
+	
+	@Override
+	public int size(){
+		return size;
+	}
+	
+	@Override
+	public boolean contains(Object o){
+		int slot = slotOf(o);
+		return slot != NO_SLOT && Bits.test(live, slot);
+	}
+	
+	@Override
+	public boolean add(T t){
+		int slot = slotOf(t);
+		if(slot == NO_SLOT){
+			slot = newSlot(t.id());
+		}
+		if(!Bits.test(live, slot)){
+			ownLive();
+			Bits.set(live, slot);
+			size++;
+			modCount++;
+			return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean remove(Object o){
+		int slot = slotOf(o);
+		if(slot != NO_SLOT && Bits.test(live, slot)){
+			ownLive();
+			Bits.clear(live, slot);
+			size--;
+			modCount++;
+			return true;
+		}
+		return false;
+	}
+	
+  /**
+   * <p>Returns the slot where {@code o} is or was recorded, or {@value #NO_SLOT} if {@code o} has
+   * never been recorded.</p>
+   * <p>Ids are only unique among the nodes of one type in one puzzle; so, a slot with the right id
+   * only counts if the owner resolves that id to {@code o} itself.</p>
+   * @param o an object
+   * @return the slot where {@code o} is or was recorded, or {@value #NO_SLOT} if {@code o} has never
+   * been recorded
+   */
+	private int slotOf(Object o){
+		if(o instanceof NodeSet<?, ?>){
+			int id = ((NodeSet<?, ?>) o).id();
+			for(int i = 0; i < slotCount; ++i){
+				if(slots[i] == id){
+					return resolve(id) == o ? i : NO_SLOT;
+				}
+			}
+		}
+		return NO_SLOT;
+	}
+	
+	private static final int NO_SLOT = -1;
+	
+  /**
+   * <p>Returns the node whose id is {@code id}, as determined by this Adjacency's owner.</p>
+   * @param id the id of a node recorded by this Adjacency
+   * @return the node whose id is {@code id}
+   */
+	@SuppressWarnings("unchecked")
+	private T resolve(int id){
+		return (T) owner.neighbor(id);
+	}
+	
+  /**
+   * <p>Appends a slot for the node with the specified {@code id}, growing the arrays if needed.</p>
+   * @param id the id of a node not yet given a slot
+   * @return the new slot
+   */
+	private int newSlot(int id){
+		if(slotCount == slots.length){
+			slots = Arrays.copyOf(slots, Math.max(1, slots.length * GROWTH_FACTOR));
+			live = Arrays.copyOf(live, Bits.wordCount(slots.length));
+			sharedSlots = false;
+			sharedLive = false;
+		} else if(sharedSlots){
+			slots = slots.clone();
+			sharedSlots = false;
+		}
+		slots[slotCount] = id;
+		return slotCount++;
+	}
+	
+	private static final int GROWTH_FACTOR = 2;
+	
+  /**
+   * <p>Copies {@link #live} if it is shared, so that it can be written.</p>
+   */
+	private void ownLive(){
+		if(sharedLive){
+			live = live.clone();
+			sharedLive = false;
+		}
+	}
+	
+	@Override
+	public Iterator<T> iterator(){
+		return new SlotIterator();
+	}
+	
+  /**
+   * <p>An Iterator over the nodes in the live slots of this CompactAdjacency, whose
+   * {@link Iterator#remove() remove()} method removes only from this CompactAdjacency.</p>
+   * @author fiveham
+   */
+	private class SlotIterator implements Iterator<T>{
+		
+		private int expectedModCount = modCount;
+		private int next = Bits.nextSetBit(live, 0);
+		private int last = NO_SLOT;
+		
+		@Override
+		public boolean hasNext(){
+			return next != Bits.NO_BIT;
+		}
+		
+		@Override
+		public T next(){
+			if(expectedModCount != modCount){
+				throw new ConcurrentModificationException();
+			}
+			if(next == Bits.NO_BIT){
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = next + 1 < slotCount ? Bits.nextSetBit(live, next + 1) : Bits.NO_BIT;
+			return resolve(slots[last]);
+		}
+		
+		@Override
+		public void remove(){
+			if(last == NO_SLOT){
+				throw new IllegalStateException("Element already removed or not yet returned.");
+			}
+			if(expectedModCount != modCount){
+				throw new ConcurrentModificationException();
+			}
+			ownLive();
+			Bits.clear(live, last);
+			size--;
+			expectedModCount = ++modCount;
+			last = NO_SLOT;
+		}
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder result = new StringBuilder("[");
+		for(Iterator<T> i = iterator(); i.hasNext();){
+			result.append(i.next());
+			if(i.hasNext()){
+				result.append(", ");
+			}
+		}
+		return result.append("]").toString();
+	}
+}
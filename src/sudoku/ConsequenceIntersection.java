@@ -2,18 +2,23 @@ package sudoku;
 
 import common.BackedSet;
 import common.Sets;
+import common.Universe;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
-import java.util.function.BiFunction;
-import java.util.function.BiPredicate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import sudoku.time.TechniqueEvent;
 
@@ -51,12 +56,70 @@ public class ConsequenceIntersection{
 	
   private final Sudoku target;
   
+  private final Mode mode;
+  
+  /**
+   * <p>The indices in the target's {@link Sudoku#factUniverse() fact Universe} of the Facts of 
+   * each Claim, indexed by the Claim's index in the target's {@link Sudoku#claimUniverse() claim 
+   * Universe}. This lets a WhatIf touch only the Facts of a Claim it accounts for.</p>
+   */
+  private final int[][] claimFacts;
+  
   /**
-   * <p>Constructs a ConsequenceIntersection that works to solve the specified {@code puzzle}.</p>
+   * <p>The size of each Fact of the target, indexed by the Fact's index in the target's fact 
+   * Universe.</p>
+   */
+  private final int[] factSizes;
+  
+  /**
+   * <p>The records of the Facts whose last exploration found nothing, which may be shared with the 
+   * ConsequenceIntersections of earlier and later rounds of solving.</p>
+   */
+  private final UnproductiveFacts unproductive;
+  
+  /**
+   * <p>Constructs a ConsequenceIntersection that works to solve the specified {@code puzzle}, 
+   * trying its Facts one at a time.</p>
    * @param puzzle the sudoku puzzle that this Technique works to solve
    */
 	public ConsequenceIntersection(Sudoku puzzle){
+	  this(puzzle, Mode.SEQUENTIAL);
+	}
+	
+  /**
+   * <p>Constructs a ConsequenceIntersection that works to solve the specified {@code puzzle}, 
+   * trying its Facts as specified by {@code mode}.</p>
+   * @param puzzle the sudoku puzzle that this Technique works to solve
+   * @param mode how the Facts of {@code puzzle} are tried
+   */
+	public ConsequenceIntersection(Sudoku puzzle, Mode mode){
+	  this(puzzle, mode, new UnproductiveFacts(puzzle));
+	}
+	
+  /**
+   * <p>Constructs a ConsequenceIntersection that works to solve the specified {@code puzzle}, 
+   * trying its Facts as specified by {@code mode} and skipping the Facts that {@code unproductive} 
+   * says would find nothing again.</p>
+   * @param puzzle the sudoku puzzle that this Technique works to solve
+   * @param mode how the Facts of {@code puzzle} are tried
+   * @param unproductive the records of Facts whose last exploration found nothing, made for 
+   * {@code puzzle} or for a Sudoku of which {@code puzzle} is a part
+   */
+	ConsequenceIntersection(Sudoku puzzle, Mode mode, UnproductiveFacts unproductive){
 	  this.target = puzzle;
+	  this.mode = mode;
+	  this.unproductive = unproductive;
+	  
+	  Universe<Claim> claims = target.claimUniverse();
+	  Universe<Fact> facts = target.factUniverse();
+	  this.claimFacts = new int[claims.size()][];
+	  for(int i = 0; i < claimFacts.length; ++i){
+	    claimFacts[i] = claims.get(i).stream().mapToInt(facts::index).toArray();
+	  }
+	  this.factSizes = new int[facts.size()];
+	  for(int i = 0; i < factSizes.length; ++i){
+	    factSizes[i] = facts.get(i).size();
+	  }
 	}
 	
   /**
@@ -68,26 +131,417 @@ public class ConsequenceIntersection{
    * {@code null} if no progress was made
    */
 	public TechniqueEvent implications(){
-		return target.factStream()
-				.sorted(Comparator.comparingInt(Fact::size))
-				.map(this::implications)
-				.filter(Objects::nonNull)
-				.findFirst()
-				.orElse(null);
+		return mode.implications(this);
 	}
 	
   /**
-   * <p>Tries to find an overlap among the consequences of each of the Claims of {@code f} in the
-   * puzzle hypothetically being true.</p>
+   * <p>Tries the Facts of the puzzle one at a time, in order of increasing size, and stops at the 
+   * first one that leads to progress.</p>
+   * @return a TechniqueEvent describing the Fact whose Claims' consequences led to progress in
+   * solving the puzzle and the Claims that were falsified in that step of progress, or
+   * {@code null} if no progress was made
+   */
+	private TechniqueEvent sequentialImplications(){
+		for(Fact f : target.factsBySize()){
+			Set<Claim> con = consequenceIntersection(f, NEVER_CANCELLED);
+			if(!con.isEmpty()){
+				return new SolveEventImplications(f, con);
+			}
+		}
+		return null;
+	}
+	
+  /**
+   * <p>Tries all the Facts of the puzzle at once on the common fork-join pool, ranked in order of 
+   * increasing size.</p>
+   * <p>When the exploration of a Fact finds an overlap, the explorations of the Facts ranked after 
+   * it stop at their next step, since their results can't be used. The explorations of the Facts 
+   * ranked before it go on, and the result comes from the lowest-ranked Fact that has an overlap, 
+   * which is the same Fact {@link Mode#SEQUENTIAL sequential} mode stops at.</p>
+   * <p>The explorations only read the puzzle. The Claims in the overlap are set false, by 
+   * constructing the returned event, after all the explorations have finished.</p>
    * @return a TechniqueEvent describing the Fact whose Claims' consequences led to progress in
    * solving the puzzle and the Claims that were falsified in that step of progress, or
    * {@code null} if no progress was made
    */
-	private TechniqueEvent implications(Fact f){
-		Set<Claim> con = new Logic(f).findConsequenceIntersection();
-		return con.isEmpty() 
-				? null
-				: new SolveEventImplications(f, con);
+	private TechniqueEvent parallelImplications(){
+		List<Fact> facts = new ArrayList<>();
+		target.factsBySize().forEach(facts::add);
+		
+		AtomicInteger firstSuccess = new AtomicInteger(facts.size());
+		AtomicReferenceArray<Set<Claim>> results = new AtomicReferenceArray<>(facts.size());
+		IntStream.range(0, facts.size()).parallel().forEach((rank) -> {
+			BooleanSupplier cancelled = () -> firstSuccess.get() < rank;
+			if(!cancelled.getAsBoolean()){
+				Set<Claim> con = consequenceIntersection(facts.get(rank), cancelled);
+				if(!con.isEmpty()){
+					results.set(rank, con);
+					firstSuccess.accumulateAndGet(rank, Math::min);
+				}
+			}
+		});
+		
+		int rank = firstSuccess.get();
+		return rank < facts.size() 
+				? new SolveEventImplications(facts.get(rank), results.get(rank)) 
+				: null;
+	}
+	
+  /**
+   * <p>Tries every Fact of the puzzle, in order of increasing size, against the puzzle as it is 
+   * before any of them, and collects the overlaps found into one batch, so that a single round of 
+   * solving makes the progress of many.</p>
+   * <p>Each overlap is sound on its own, since none of the others has been applied when it is 
+   * found. An overlap is left out of the batch if adding it would leave some Fact with no Claims, 
+   * which can only happen if the puzzle has no solution; the sequential and parallel modes would 
+   * find that out one Fact at a time instead.</p>
+   * @return a TechniqueEvent describing the Facts whose Claims' consequences led to progress in
+   * solving the puzzle and all the Claims that were falsified in that step of progress, or
+   * {@code null} if no progress was made
+   */
+	private TechniqueEvent harvestImplications(){
+		List<Fact> productiveFacts = new ArrayList<>();
+		BackedSet<Claim> batch = target.claimUniverse().back();
+		int[] remainingSizes = factSizes.clone();
+		
+		for(Fact f : target.factsBySize()){
+			Set<Claim> con = consequenceIntersection(f, NEVER_CANCELLED);
+			if(!con.isEmpty() && addToBatch(con, batch, remainingSizes)){
+				productiveFacts.add(f);
+			}
+		}
+		
+		return productiveFacts.isEmpty() 
+				? null 
+				: new SolveEventHarvest(productiveFacts, batch);
+	}
+	
+  /**
+   * <p>Adds the Claims in {@code con} to {@code batch} unless that would falsify every Claim of 
+   * some Fact, updating {@code remainingSizes} by way of the claim-fact incidence index.</p>
+   * @param con the Claims falsified by the overlap for one Fact
+   * @param batch the Claims falsified by the overlaps already in the batch
+   * @param remainingSizes the number of Claims of each Fact not in {@code batch}, indexed by the 
+   * Fact's index in the target's fact Universe
+   * @return true if {@code con} was added to {@code batch}, false if it would conflict with it
+   */
+	private boolean addToBatch(Set<Claim> con, BackedSet<Claim> batch, int[] remainingSizes){
+		List<int[]> touched = new ArrayList<>();
+		boolean emptiesFact = false;
+		for(Claim c : con){
+			if(!batch.contains(c)){
+				int[] facts = claimFacts[target.claimUniverse().index(c)];
+				touched.add(facts);
+				for(int f : facts){
+					emptiesFact |= --remainingSizes[f] == 0;
+				}
+			}
+		}
+		
+		if(emptiesFact){
+			for(int[] facts : touched){
+				for(int f : facts){
+					remainingSizes[f]++;
+				}
+			}
+			return false;
+		}
+		batch.addAll(con);
+		return true;
+	}
+	
+  /**
+   * <p>Tries to find an overlap among the consequences of each of the Claims of {@code f} in the
+   * puzzle hypothetically being true.</p>
+   * <p>If the last time {@code f} was explored nothing was found, and none of the Facts that 
+   * exploration read have gained or lost a Claim since, then {@code f} is skipped: exploring it 
+   * again would read the same Claims and find nothing again. Between rounds of solving, only the 
+   * Facts whose explored region includes a Fact of a Claim that was set false are explored 
+   * again.</p>
+   * @param f the Fact whose Claims' consequences are explored
+   * @param cancelled tells the exploration to stop early; an exploration that is cancelled is not 
+   * recorded
+   * @return the Claims that are false no matter which of the Claims of {@code f} is true, which 
+   * are none if no overlap was found
+   */
+	private Set<Claim> consequenceIntersection(Fact f, BooleanSupplier cancelled){
+		if(unproductive.isCurrent(f)){
+			return Collections.emptySet();
+		}
+		
+		Logic logic = new Logic(f, cancelled);
+		Set<Claim> result = logic.findConsequenceIntersection();
+		unproductive.record(f, result.isEmpty() && !cancelled.getAsBoolean() ? logic.explored : null);
+		return result;
+	}
+	
+	private static final BooleanSupplier NEVER_CANCELLED = () -> false;
+	
+  /**
+   * <p>The records of the Facts of a Sudoku whose last exploration found nothing, by the Facts' 
+   * {@link NodeSet#id() ids}.</p>
+   * <p>A Solver makes one of these for the Sudoku it is given and shares it with the Solvers of 
+   * that Sudoku's components, round after round, so a Fact's record outlives the network it was 
+   * explored in. The Solvers' networks are disjoint, and each exploration of 
+   * {@link Mode#PARALLEL parallel} mode is of a different Fact; so, no two threads ever write the 
+   * record of the same Fact at the same time, and a record is only read by a thread that started 
+   * after it was written.</p>
+   * @author fiveham
+   */
+	static final class UnproductiveFacts{
+		
+		private final Unproductive[] records;
+		
+    /**
+     * <p>Constructs an UnproductiveFacts with no records, with room for the Facts of 
+     * {@code target}.</p>
+     * @param target the Sudoku whose Facts, and whose components' Facts, are recorded
+     */
+		UnproductiveFacts(Sudoku target){
+			this.records = new Unproductive[target.factStream().mapToInt(Fact::id).max().orElse(-1) + 1];
+		}
+		
+    /**
+     * <p>Returns true if the last exploration of {@code f} found nothing and none of the Facts it 
+     * read has changed since, false otherwise.</p>
+     * @param f a Fact of the Sudoku this UnproductiveFacts was made for
+     * @return true if exploring {@code f} again would find nothing, false otherwise
+     */
+		private boolean isCurrent(Fact f){
+			Unproductive record = records[f.id()];
+			return record != null && record.isCurrent();
+		}
+		
+    /**
+     * <p>Records that exploring {@code f} found nothing after reading the Facts in 
+     * {@code region}, or, if {@code region} is null, forgets any such record for {@code f}.</p>
+     * @param f a Fact of the Sudoku this UnproductiveFacts was made for
+     * @param region the Facts that an exploration of {@code f} that found nothing touched, or null
+     */
+		private void record(Fact f, Collection<Fact> region){
+			records[f.id()] = region == null ? null : new Unproductive(region);
+		}
+	}
+	
+  /**
+   * <p>A record that exploring a Fact's Claims found nothing, along with the region of the puzzle 
+   * the exploration read: every Fact that any of its WhatIfs touched, each with the 
+   * {@link Fact#changeCount number of changes} it had undergone at the time.</p>
+   * <p>An exploration only reads the Claims of the Facts it touches, so its result stays the same 
+   * as long as none of those Facts changes.</p>
+   * @author fiveham
+   */
+	private static final class Unproductive{
+		
+		private final Fact[] region;
+		private final int[] changeCounts;
+		
+		private Unproductive(Collection<Fact> region){
+			this.region = region.toArray(new Fact[region.size()]);
+			this.changeCounts = new int[this.region.length];
+			for(int i = 0; i < this.region.length; ++i){
+				changeCounts[i] = this.region[i].changeCount;
+			}
+		}
+		
+    /**
+     * <p>Returns true if none of the Facts in the explored region has changed since the 
+     * exploration, false otherwise.</p>
+     * @return true if none of the Facts in the explored region has changed since the exploration, 
+     * false otherwise
+     */
+		boolean isCurrent(){
+			for(int i = 0; i < region.length; ++i){
+				if(region[i].changeCount != changeCounts[i]){
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+  /**
+   * <p>The reduced sizes of the Facts that a WhatIf has touched, by the Facts' indices in the 
+   * target's fact Universe. Only the touched Facts are stored; an untouched Fact's reduced size is 
+   * its full size, read from the array shared by every WhatIf of a ConsequenceIntersection. So, 
+   * making or copying a ReducedSizes takes time proportional to the number of Facts touched, not 
+   * to the number of Facts in the target.</p>
+   * <p>The touched Facts and their reduced sizes are kept in parallel arrays in the order the Facts 
+   * were first touched, and found by way of an open-addressing hash table of their positions in 
+   * those arrays.</p>
+   * @author fiveham
+   */
+	private static final class ReducedSizes{
+		
+		private final int[] fullSizes;
+		
+		private int[] facts;
+		private int[] sizes;
+		private int count;
+		
+    /**
+     * <p>One more than the position in {@code facts} of the Fact hashed to each slot, or 
+     * {@value #EMPTY} for an empty slot. At most half the slots are full.</p>
+     */
+		private int[] table;
+		
+    /**
+     * <p>The touched Facts in increasing order, or null if a Fact has been touched for the first 
+     * time since they were last sorted. Once made, the array is never changed, so copies share 
+     * it.</p>
+     */
+		private int[] sorted;
+		
+    /**
+     * <p>Constructs a ReducedSizes in which no Fact has been touched.</p>
+     * @param fullSizes the size of each Fact, by its index in the target's fact Universe
+     */
+		private ReducedSizes(int[] fullSizes){
+			this.fullSizes = fullSizes;
+			this.facts = new int[INITIAL_CAPACITY];
+			this.sizes = new int[INITIAL_CAPACITY];
+			this.count = 0;
+			this.table = new int[INITIAL_CAPACITY * 2];
+			this.sorted = null;
+		}
+		
+    /**
+     * <p>Constructs a ReducedSizes with the same touched Facts and reduced sizes as 
+     * {@code original}.</p>
+     * @param original the ReducedSizes to copy
+     */
+		private ReducedSizes(ReducedSizes original){
+			this.fullSizes = original.fullSizes;
+			this.facts = original.facts.clone();
+			this.sizes = original.sizes.clone();
+			this.count = original.count;
+			this.table = original.table.clone();
+			this.sorted = original.sorted;
+		}
+		
+		private static final int INITIAL_CAPACITY = 16;
+		
+		private static final int EMPTY = 0;
+		
+    /**
+     * <p>Reduces the size of the Fact whose index in the target's fact Universe is {@code fact} by 
+     * one, touching it if it has not been touched yet.</p>
+     * @param fact the index of a Fact in the target's fact Universe
+     */
+		void decrement(int fact){
+			int slot = slot(fact);
+			if(table[slot] == EMPTY){
+				if(count == facts.length){
+					grow();
+					slot = slot(fact);
+				}
+				facts[count] = fact;
+				sizes[count] = fullSizes[fact];
+				table[slot] = ++count;
+				sorted = null;
+			}
+			sizes[table[slot] - 1]--;
+		}
+		
+    /**
+     * <p>Returns the reduced size of the Fact whose index in the target's fact Universe is 
+     * {@code fact}, which is its full size if it has not been touched.</p>
+     * @param fact the index of a Fact in the target's fact Universe
+     * @return the reduced size of that Fact
+     */
+		int get(int fact){
+			int position = table[slot(fact)];
+			return position == EMPTY ? fullSizes[fact] : sizes[position - 1];
+		}
+		
+    /**
+     * <p>Returns the indices of the touched Facts in the target's fact Universe, in increasing 
+     * order. The returned array must not be modified.</p>
+     * @return the indices of the touched Facts in increasing order
+     */
+		int[] touched(){
+			if(sorted == null){
+				sorted = Arrays.copyOf(facts, count);
+				Arrays.sort(sorted);
+			}
+			return sorted;
+		}
+		
+    /**
+     * <p>Returns the slot of the table that holds the position of {@code fact} or, if it has not 
+     * been touched, the empty slot where its position would go.</p>
+     * @param fact the index of a Fact in the target's fact Universe
+     * @return the slot for {@code fact}
+     */
+		private int slot(int fact){
+			int mask = table.length - 1;
+			int hash = fact * HASH_MULTIPLIER;
+			int slot = (hash ^ (hash >>> Short.SIZE)) & mask;
+			while(table[slot] != EMPTY && facts[table[slot] - 1] != fact){
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+		
+		private static final int HASH_MULTIPLIER = 0x9E3779B9;
+		
+		private void grow(){
+			facts = Arrays.copyOf(facts, facts.length * 2);
+			sizes = Arrays.copyOf(sizes, sizes.length * 2);
+			table = new int[facts.length * 2];
+			for(int i = 0; i < count; ++i){
+				table[slot(facts[i])] = i + 1;
+			}
+		}
+	}
+	
+  /**
+   * <p>The ways a ConsequenceIntersection can try the Facts of its puzzle.
+   * @author fiveham
+   */
+	public static enum Mode{
+		
+    /**
+     * <p>Facts are tried one at a time, smallest first, until one of them leads to progress.</p>
+     */
+		SEQUENTIAL{
+			@Override
+			TechniqueEvent implications(ConsequenceIntersection technique){
+				return technique.sequentialImplications();
+			}
+		},
+		
+    /**
+     * <p>Facts are tried concurrently, and the smallest Fact that leads to progress is used, the 
+     * same Fact {@link #SEQUENTIAL SEQUENTIAL} mode would use. Explorations that can no longer 
+     * matter are cancelled as soon as a smaller Fact leads to progress.</p>
+     */
+		PARALLEL{
+			@Override
+			TechniqueEvent implications(ConsequenceIntersection technique){
+				return technique.parallelImplications();
+			}
+		},
+		
+    /**
+     * <p>Every Fact is tried in one pass, and the Claims falsified by all the overlaps found that 
+     * don't conflict are set false together as a single batched event, so that fewer rounds of 
+     * solving are needed.</p>
+     */
+		HARVEST{
+			@Override
+			TechniqueEvent implications(ConsequenceIntersection technique){
+				return technique.harvestImplications();
+			}
+		};
+		
+    /**
+     * <p>Applies {@code technique} to its puzzle in this mode.</p>
+     * @param technique the ConsequenceIntersection to apply
+     * @return a TechniqueEvent describing the progress made, or {@code null} if no progress was 
+     * made
+     */
+		abstract TechniqueEvent implications(ConsequenceIntersection technique);
 	}
 	
 	/**
@@ -117,6 +571,34 @@ public class ConsequenceIntersection{
 		}
 	}
 	
+	/**
+	 * <p>A solution event where several Logics got results against the same state of the puzzle, 
+	 * and all their results were applied together.</p>
+	 * @author fiveham
+	 */
+	public static class SolveEventHarvest extends TechniqueEvent{
+		
+		private final List<Fact> initFacts;
+		
+		/**
+		 * <p>Constructs a SolveEventHarvest for a solution event that occured as the result of 
+		 * exploring the possible consequences of hypothetical solution states of each of the Facts in
+		 * {@code facts}.</p>
+		 * @param facts the Facts the exploration of which caused this solution event
+		 * @param falsifiedClaims the Claims determined false in this solution event
+		 */
+		SolveEventHarvest(List<Fact> facts, Set<Claim> falsifiedClaims){
+			super(falsifiedClaims);
+			this.initFacts = facts;
+		}
+		
+		@Override
+		protected String toStringStart() {
+			return "Exploration of the consequences of the possible solutions of " + initFacts.size() 
+			    + " Facts " + initFacts;
+		}
+	}
+	
 	/**
 	 * <p>A Logic coordinates a group of hypothetical scenarios that each state "If these Claims are 
 	 * true, then these other Claims are false." By expanding these scenarios and intersecting their 
@@ -129,6 +611,16 @@ public class ConsequenceIntersection{
 		private final Puzzle puzzle;
 		private Collection<WhatIf> whatIfs;
 		
+    /**
+     * <p>Tells this Logic to stop exploring, when it returns true.</p>
+     */
+		private final BooleanSupplier cancelled;
+		
+    /**
+     * <p>The Facts touched by any of this Logic's WhatIfs, past or present.</p>
+     */
+		private final BackedSet<Fact> explored;
+		
     /**
      * <p>Constructs a Logic that creates a hypothetical scenario for each Claim in {@code claims} 
      * in which the Claim that seeds the scenario is asserted true.</p>
@@ -136,6 +628,20 @@ public class ConsequenceIntersection{
      * @throws IllegalArgumentException if {@code claims} is empty.
      */
 		private Logic(Set<? extends Claim> claims){
+			this(claims, NEVER_CANCELLED);
+		}
+		
+    /**
+     * <p>Constructs a Logic that creates a hypothetical scenario for each Claim in {@code claims} 
+     * in which the Claim that seeds the scenario is asserted true, and that stops exploring once 
+     * {@code cancelled} returns true.</p>
+     * @param claims the initial claims whose consequences if true are to be explored
+     * @param cancelled checked before each layer of depth is explored
+     * @throws IllegalArgumentException if {@code claims} is empty.
+     */
+		private Logic(Set<? extends Claim> claims, BooleanSupplier cancelled){
+			this.cancelled = cancelled;
+			this.explored = target.factUniverse().back();
 			try{
 				this.puzzle = claims.iterator().next().getPuzzle();
 			} catch(NoSuchElementException e){
@@ -146,7 +652,7 @@ public class ConsequenceIntersection{
 					.map(WhatIf::new)
 					.collect(Collectors.toList());
 			
-			popularity = new HashMap<>();
+			popularity = new int[target.factUniverse().size()];
 		}
 		
 		/**
@@ -158,7 +664,9 @@ public class ConsequenceIntersection{
 		 */
 		private Set<Claim> findConsequenceIntersection(){
 			Set<Claim> result;
-			while((result = consequenceIntersection()).isEmpty() && isDepthAvailable()){
+			while((result = consequenceIntersection()).isEmpty() 
+			    && !cancelled.getAsBoolean() 
+			    && isDepthAvailable()){
 				exploreDepth();
 			}
 			return result;
@@ -166,26 +674,28 @@ public class ConsequenceIntersection{
 		
 		/**
 		 * <p>Returns a set of the Claims that are falsified by all of this Logic's WhatIfs.</p>
+		 * <p>The WhatIfs' consequences all share the target's claim Universe, so the intersection is 
+		 * built in a single BackedSet by ANDing their words in place. As soon as the intersection is 
+		 * empty, the remaining WhatIfs are skipped, and a WhatIf whose consequences are disjoint from 
+		 * the intersection so far clears it instead of being ANDed into it word by word.</p>
 		 * @return a set of the Claims that are falsified by all of this Logic's WhatIfs
 		 */
 		private Set<Claim> consequenceIntersection(){
-			return whatIfs.stream()
-					.map(WhatIf::consequences)
-					.reduce(
-					    null, 
-					    (a, b) -> {
-					      if(a != null && b != null){
-					        Set<Claim> result = new HashSet<>(a);
-					        result.retainAll(b);
-					        return result;
-					      } else if(a == null && b == null){
-					        return new HashSet<Claim>();
-					      } else if(a != null){
-					        return new HashSet<>(a);
-					      } else{
-					        return new HashSet<>(b);
-					      }
-    					});
+			Iterator<WhatIf> i = whatIfs.iterator();
+			if(!i.hasNext()){
+				return target.claimUniverse().back();
+			}
+			
+			BackedSet<Claim> result = i.next().consequences().clone();
+			while(!result.isEmpty() && i.hasNext()){
+				BackedSet<Claim> consequences = i.next().consequences();
+				if(BackedSet.disjoint(result, consequences)){
+					result.clear();
+				} else{
+					result.retainAll(consequences);
+				}
+			}
+			return result;
 		}
 		
 		/**
@@ -232,15 +742,19 @@ public class ConsequenceIntersection{
 		}
 		
 		/**
-		 * <p>Populates this Logic's popularity Map.</p>
+		 * <p>Populates this Logic's popularity counts.</p>
 		 */
 		private void populatePopularity(){
-			popularity = Sets.countingUnion(whatIfs.stream()
+			popularity = Sets.countingUnion(target.factUniverse(), whatIfs.stream()
 					.map((wi) -> wi.reducedFacts()
 							.collect(Collectors.toList())));
 		}
 		
-		private Map<Fact, Integer> popularity;
+    /**
+     * <p>The popularity of each Fact of the target, indexed by the Fact's index in the target's 
+     * {@link Sudoku#factUniverse() fact Universe}.</p>
+     */
+		private int[] popularity;
 		
 		/**
 		 * <p>Returns a comparator that compares ReducedFacts by the popularity of their Facts in this 
@@ -261,7 +775,8 @@ public class ConsequenceIntersection{
 		 * @return the popularity of the specified ReducedFact's Fact among this Logic's WhatIfs
 		 */
 		private int popularity(WhatIf.ReducedFact f){
-			return popularity.getOrDefault(f.getFact(), POPULARITY_IF_ABSENT);
+			int index = target.factUniverse().index(f.getFact());
+			return index < 0 ? POPULARITY_IF_ABSENT : popularity[index];
 		}
 		
 		private static final int POPULARITY_IF_ABSENT = 0;
@@ -283,36 +798,78 @@ public class ConsequenceIntersection{
 			 */
 			private final BackedSet<Claim> consequences;
 			
+			/**
+			 * <p>The number of Claims of each Fact that are in neither {@code assumptions} nor 
+			 * {@code consequences}, stored only for the Facts that have at least one Claim in one of 
+			 * them, which are the Facts this WhatIf has touched.</p>
+			 */
+			private final ReducedSizes reducedSizes;
+			
 			/**
 			 * <p>Constructs a WhatIf that assumes {@code c} is true, concludes the Claims visible to 
 			 * {@code c} are false, and pertains to {@code c}'s puzzle.</p>
 			 * @param c the Claim that this WhatIf initially assumes is true
 			 */
 			private WhatIf(Claim c){
-				assumptions = puzzle.claimUniverse().back();
-				assumptions.add(c);
-				consequences = puzzle.claimUniverse().back(c.visible());
+				assumptions = target.claimUniverse().back();
+				consequences = target.claimUniverse().back();
+				reducedSizes = new ReducedSizes(factSizes);
+				assume(c);
+				c.visible().forEach(this::conclude);
 			}
 			
       /**
-       * <p>Constructs a WhatIf having the specified {@code assumptions},
-       * {@code consequences}, and {@code puzzle}. Used to {@link #clone() clone} a
-       * WhatIf.</p>
-       * @param assumptions the Claims this WhatIf assumes are true
-       * @param consequences the Claims this WhatIf concludes must be false
-       * @param puzzle the Puzzle to which this WhatIf pertains
+       * <p>Constructs a WhatIf having the same assumptions, consequences, and reduced Facts as 
+       * {@code original}. Used to {@link #clone() clone} a WhatIf.</p>
+       * @param original the WhatIf to copy
        * @see #clone()
        */
-			private WhatIf(Set<Claim> assumptions, Set<Claim> consequences, Puzzle puzzle){
-				this.assumptions = puzzle.claimUniverse().back(assumptions);
-				this.consequences = puzzle.claimUniverse().back(consequences);
+			private WhatIf(WhatIf original){
+				this.assumptions = original.assumptions.clone();
+				this.consequences = original.consequences.clone();
+				this.reducedSizes = new ReducedSizes(original.reducedSizes);
+			}
+			
+			/**
+			 * <p>Adds {@code c} to {@code assumptions}.</p>
+			 * @param c a Claim to be assumed true
+			 * @return true if {@code assumptions} changed, false otherwise
+			 */
+			private boolean assume(Claim c){
+				account(c);
+				return assumptions.add(c);
+			}
+			
+			/**
+			 * <p>Adds {@code c} to {@code consequences}.</p>
+			 * @param c a Claim to be concluded false
+			 * @return true if {@code consequences} changed, false otherwise
+			 */
+			private boolean conclude(Claim c){
+				account(c);
+				return consequences.add(c);
+			}
+			
+			/**
+			 * <p>Reduces each Fact of {@code c} by one if {@code c} is in neither {@code assumptions} 
+			 * nor {@code consequences} yet. Only the Facts of {@code c} are touched, by way of the 
+			 * {@link ConsequenceIntersection#claimFacts claim-fact incidence index}.</p>
+			 * @param c a Claim about to be added to {@code assumptions} or {@code consequences}
+			 */
+			private void account(Claim c){
+				if(!assumptions.contains(c) && !consequences.contains(c)){
+					for(int f : claimFacts[target.claimUniverse().index(c)]){
+						reducedSizes.decrement(f);
+						explored.add(target.factUniverse().get(f));
+					}
+				}
 			}
 			
 			/**
 			 * <p>Returns this WhatIf's consequences, Claims falsified by this WhatIf's assumptions.</p>
 			 * @return this WhatIf's consequences
 			 */
-			private Set<Claim> consequences(){
+			private BackedSet<Claim> consequences(){
 				return consequences;
 			}
 			
@@ -355,7 +912,7 @@ public class ConsequenceIntersection{
        * or {@code consequences}
        */
 			private Stream<Fact> reducedFacts(){
-				return filteredReducedFacts(ConsequenceIntersection::factReduced, JUST_THE_FACTS);
+				return filteredReducedFacts(ConsequenceIntersection::factReduced).map(ReducedFact::getFact);
 			}
 			
 			/**
@@ -374,7 +931,8 @@ public class ConsequenceIntersection{
        * sets
        */
 			private Stream<Fact> partiallyReducedFactsRaw(){
-				return filteredReducedFacts(ConsequenceIntersection::factPartiallyReduced, JUST_THE_FACTS);
+				return filteredReducedFacts(ConsequenceIntersection::factPartiallyReduced)
+				    .map(ReducedFact::getFact);
 			}
 			
 			/**
@@ -415,56 +973,23 @@ public class ConsequenceIntersection{
 			
 			/**
 			 * <p>Streams the Facts of the puzzle of the ConsequenceIntersection that contains this 
-       * WhatIf, copies each Fact, removes this WhatIf's consequences and assumptions from each 
-       * copy, and maps each copy either to null or to a new ReducedFact made using the original 
-       * Fact and the modified copy depending on whether the original Fact and the modified copy 
-       * fail or pass the test defined by {@code test}, respectively. Any null elements are filtered
-       * out of the resulting stream.</p>
-			 * @param test a test that tests one of Facts from the puzzle of the containing 
-       * ConsequenceIntersection paired with a modified copy of that Fact from which this WhatIf's 
-       * assumptions and consequences have been removed
-			 * @return a stream of non-null ReducedFacts based on inputs that passed the specified 
-			 * {@code test} involving copies of the containing ConsequenceIntersection's puzzle's Facts 
-			 * from which this WhatIf's assumptions and consequences were removed
-			 */
-			private Stream<ReducedFact> filteredReducedFacts(BiPredicate<Fact,BackedSet<Claim>> test){
-				return filteredReducedFacts(test, ReducedFact::new);
-			}
-			
-			/**
-			 * <p>Streams the Facts of the puzzle of the ConsequenceIntersection that contains this 
-			 * WhatIf, copies each Fact, removes this WhatIf's consequences and assumptions from each 
-			 * copy, and maps each copy either to null or to the output of {@code bifu} when {@code bifu} 
-			 * is sent the original Fact and the modified copy depending on whether the original Fact and 
-			 * the modified copy fail or pass the test defined by {@code test}, respectively. Any null 
-			 * elements are filtered out of the resulting stream.</p>
-			 * @param <T> the type of the elements of the resulting stream
+			 * WhatIf that have been touched by its assumptions and consequences, pairs each one with the 
+			 * number of its Claims not accounted for, and keeps the ones for which {@code test} is 
+			 * true.</p>
+			 * <p>The sizes are kept up to date as Claims are added to this WhatIf, so this only visits 
+			 * the touched Facts and copies none of them. A Fact that is not touched is not reduced at 
+			 * all, and {@code test} must be false for it.</p>
 			 * @param test a test that tests one of Facts from the puzzle of the containing 
-			 * ConsequenceIntersection paired with a modified copy of that Fact from which this WhatIf's 
-			 * assumptions and consequences have been removed
-			 * @param bifu a function that accepts one of the Facts from the puzzle of the containing 
-			 * ConsequenceIntersection paired with a modified copy of that Fact form which this WhatIf's 
-			 * assumptions and consequences have been removed
-			 * @return a stream of non-null outputs of {@code bifu} based on inputs that passed the 
-			 * specified {@code test} involving copies of the containing ConsequenceIntersection's 
-			 * puzzle's Facts from which this WhatIf's assumptions and consequences were removed
+			 * ConsequenceIntersection paired with the number of its Claims that are in neither this 
+			 * WhatIf's assumptions nor its consequences
+			 * @return a stream of ReducedFacts for the touched Facts that passed the specified 
+			 * {@code test}
 			 */
-			private <T> Stream<T> filteredReducedFacts(
-			    BiPredicate<Fact, BackedSet<Claim>> test, 
-			    BiFunction<Fact, BackedSet<Claim>, T> bifu){
-			  
-				return target.factStream()
-						.map((f) -> {
-							BackedSet<Claim> bs = new BackedSet<>(puzzle.claimUniverse(), f);
-							bs.removeAll(assumptions);
-							bs.removeAll(consequences);
-							
-							T result = test.test(f, bs) 
-									? bifu.apply(f, bs) 
-									: null;
-							return result;
-						})
-						.filter(Objects::nonNull);
+			private Stream<ReducedFact> filteredReducedFacts(ReductionTest test){
+				Universe<Fact> facts = target.factUniverse();
+				return Arrays.stream(reducedSizes.touched())
+						.mapToObj((f) -> new ReducedFact(facts.get(f), reducedSizes.get(f)))
+						.filter((rf) -> test.test(rf.getFact(), rf.reducedSize()));
 			}
 			
 			/**
@@ -529,7 +1054,7 @@ public class ConsequenceIntersection{
 			
 			@Override
 			public WhatIf clone(){
-				return new WhatIf(assumptions, consequences, puzzle);
+				return new WhatIf(this);
 			}
 			
       /**
@@ -545,7 +1070,10 @@ public class ConsequenceIntersection{
        * Claims assumed true
        */
 			private boolean assumeTrue(Claim c){
-				boolean result = assumptions.add(c) | consequences.addAll(c.visible()); //single-bar or
+				boolean result = assume(c);
+				for(Claim v : c.visible()){
+					result |= conclude(v);
+				}
 				if(!BackedSet.disjoint(assumptions, consequences)){
 					throw new IllegalStateException(
 					    "Overlap between Claims assumed true and Claims concluded false");
@@ -600,31 +1128,32 @@ public class ConsequenceIntersection{
 			private class ReducedFact{
 				
 				private final Fact f;
-				private final BackedSet<Claim> reducedForm;
+				private final int reducedSize;
 				
 				/**
-				 * <p>Constructs a ReducedFact pairing the unaltered Fact {@code f} with a smaller subset, 
-				 * {@code reducedForm}.</p>
-				 * @param f the Fact which has been reduced to {@code reducedForm}
-				 * @param reducedForm a proper subset of {@code f}
+				 * <p>Constructs a ReducedFact pairing the unaltered Fact {@code f} with its reduced form, 
+				 * which has {@code reducedSize} Claims.</p>
+				 * @param f the Fact which has been reduced
+				 * @param reducedSize the number of Claims of {@code f} that are in neither this WhatIf's 
+				 * assumptions nor its consequences
 				 */
-				ReducedFact(Fact f, BackedSet<Claim> reducedForm){
+				ReducedFact(Fact f, int reducedSize){
 					this.f = f;
-					this.reducedForm = reducedForm;
+					this.reducedSize = reducedSize;
 				}
 				
 				@Override
 				public boolean equals(Object o){
 					if(o instanceof ReducedFact){
 						ReducedFact that = (ReducedFact) o;
-						return that.f.equals(this.f) && that.reducedForm.equals(this.reducedForm); 
+						return that.f.equals(this.f) && that.getReducedForm().equals(this.getReducedForm()); 
 					}
 					return false;
 				}
 				
 				@Override
 				public int hashCode(){
-					return f.hashCode() + reducedForm.hashCode();
+					return f.hashCode() + getReducedForm().hashCode();
 				}
 				
 				/**
@@ -636,11 +1165,15 @@ public class ConsequenceIntersection{
 				}
 				
 				/**
-				 * <p>Returns the reduced form of this ReducedFact.</p>
+				 * <p>Returns the reduced form of this ReducedFact: a new set of the Claims of its Fact that 
+				 * are in neither this WhatIf's assumptions nor its consequences.</p>
 				 * @return the reduced form of this ReducedFact
 				 */
 				private BackedSet<Claim> getReducedForm(){
-					return reducedForm;
+					BackedSet<Claim> result = target.claimsOf(f);
+					result.removeAll(assumptions);
+					result.removeAll(consequences);
+					return result;
 				}
 				
 				/**
@@ -648,7 +1181,7 @@ public class ConsequenceIntersection{
 				 * @return the size of the reduced form for this ReducedFact
 				 */
 				private int reducedSize(){
-					return reducedForm.size();
+					return reducedSize;
 				}
         
         /**
@@ -681,7 +1214,7 @@ public class ConsequenceIntersection{
 				 */
 				private boolean intersectionHasSize(Fact f, BackedSet<Claim> set, int size){
 					Set<Claim> result = set.clone();
-					result.retainAll(f);
+					result.retainAll(target.claimsOf(f));
 					return result.size() == size;
 				}
 			}
@@ -689,43 +1222,45 @@ public class ConsequenceIntersection{
 	}
 	
 	/**
-	 * <p>Given a Fact and a BackedSet, this outputs the Fact.</p>
+	 * <p>A test of a Fact paired with the number of its Claims left in its reduced form.</p>
 	 */
-	private static final BiFunction<Fact, BackedSet<Claim>, Fact> JUST_THE_FACTS = (f, bs) -> f;
+	@FunctionalInterface
+	private static interface ReductionTest{
+		public boolean test(Fact fullFact, int reducedSize);
+	}
 	
 	/**
-	 * <p>Returns true if {@code reducedFact} is partially but not completely reduced from 
-	 * {@code fullFact}.</p>
-	 * @param fullFact a Fact which has been reduced to {@code reducedFact}
-	 * @param reducedFact a subset of {@code fullFact}
-	 * @return true if {@code reducedFact} is partially but not completely reduced from 
+	 * <p>Returns true if {@code fullFact}'s reduced counterpart, which has {@code reducedSize} 
+	 * Claims, is partially but not completely reduced from {@code fullFact}.</p>
+	 * @param fullFact a Fact which has been reduced
+	 * @param reducedSize the number of Claims left in the reduced counterpart of {@code fullFact}
+	 * @return true if the reduced counterpart is partially but not completely reduced from 
    * {@code fullFact}, false otherwise
 	 */
-	private static boolean factPartiallyReduced(Fact fullFact, BackedSet<Claim> reducedFact){
-		return 0 < reducedFact.size() && reducedFact.size() < fullFact.size();
+	private static boolean factPartiallyReduced(Fact fullFact, int reducedSize){
+		return 0 < reducedSize && reducedSize < fullFact.size();
 	}
 	
 	/**
-	 * <p>Returns true if {@code fullFact}'s reduced counterpart has been fully reduced, having no 
-	 * elements left in it.</p>
+	 * <p>Returns true if {@code fullFact}'s reduced counterpart, which has {@code reducedSize} 
+	 * Claims, has been fully reduced, having no elements left in it.</p>
 	 * @param fullFact a Fact
-	 * @param reducedFact a subset of {@code fullFact} from which zero or more Claims have been 
-	 * removed
-	 * @return true if {@code reducedFact} is empty, false otherwise
+	 * @param reducedSize the number of Claims left in the reduced counterpart of {@code fullFact}
+	 * @return true if the reduced counterpart is empty, false otherwise
 	 */
-	private static boolean factFullyReduced(Fact fullFact, BackedSet<Claim> reducedFact){
-		return reducedFact.isEmpty();
+	private static boolean factFullyReduced(Fact fullFact, int reducedSize){
+		return reducedSize == 0;
 	}
 	
 	/**
-	 * <p>Returns true if {@code reducedFact} is smaller than {@code fullFact}, false otherwise.</p>
+	 * <p>Returns true if {@code fullFact}'s reduced counterpart, which has {@code reducedSize} 
+	 * Claims, is smaller than {@code fullFact}, false otherwise.</p>
 	 * <p>This method is a convenience for the sake of {@link Logic.WhatIf#reducedFacts()}.</p>
 	 * @param fullFact a Fact whose possible solution states are being explored
-	 * @param reducedFact a subset of {@code fullFact} from which zero or more Claims have been 
-	 * removed
-	 * @return true if {@code reducedFact} is smaller than {@code fullFact}, false otherwise
+	 * @param reducedSize the number of Claims left in the reduced counterpart of {@code fullFact}
+	 * @return true if the reduced counterpart is smaller than {@code fullFact}, false otherwise
 	 */
-	private static boolean factReduced(Fact fullFact, BackedSet<Claim> reducedFact){
-		return reducedFact.size() < fullFact.size();
+	private static boolean factReduced(Fact fullFact, int reducedSize){
+		return reducedSize < fullFact.size();
 	}
 }
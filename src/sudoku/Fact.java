@@ -14,11 +14,92 @@ public abstract class Fact extends NodeSet<Claim,Fact>{
      */
 	public static final int TRUE_CLAIM_COUNT = 1;
 	
-	protected Fact(Puzzle puzzle, Collection<Claim> c, int hash) {
-		super(puzzle, hash);
+  /**
+   * <p>The number of times this Fact has gained or lost a Claim, so that a result worked out from 
+   * this Fact's Claims can tell whether they have changed since.</p>
+   */
+	transient int changeCount = 0;
+	
+  /**
+   * <p>Constructs a Fact belonging to {@code puzzle} and containing the Claims in {@code c}.</p>
+   * @param puzzle the puzzle to which this Fact belongs
+   * @param c the Claims of this Fact
+   * @param id this Fact's {@link NodeSet#id() id}
+   * @param hash this Fact's {@link NodeSet#hashCode() hashcode}
+   */
+	protected Fact(Puzzle puzzle, Collection<Claim> c, int id, int hash) {
+		super(puzzle, c.size(), id, hash);
 		addAll(c);
 	}
 	
+  /**
+   * <p>Constructs a Fact belonging to {@code puzzle}, containing the Claims in {@code c}, and using
+   * {@code id} as both its {@link NodeSet#id() id} and its {@link NodeSet#hashCode() hashcode}.</p>
+   * @param puzzle the puzzle to which this Fact belongs
+   * @param c the Claims of this Fact
+   * @param id this Fact's id and hashcode
+   */
+	protected Fact(Puzzle puzzle, Collection<Claim> c, int id) {
+		this(puzzle, c, id, id);
+	}
+	
+  /**
+   * <p>Constructs a Fact belonging to {@code puzzle} and containing the Claims whose ids are in 
+   * {@code claimIds}, using {@code id} as both its {@link NodeSet#id() id} and its 
+   * {@link NodeSet#hashCode() hashcode}.</p>
+   * <p>Those Claims must already exist. If {@code puzzle}'s {@link Puzzle#backend() backend} has 
+   * not already linked this Fact with them, this constructor links them.</p>
+   * @param puzzle the puzzle to which this Fact belongs
+   * @param claimIds the ids of the Claims of this Fact
+   * @param id this Fact's id and hashcode
+   */
+	Fact(Puzzle puzzle, int[] claimIds, int id){
+		super(puzzle, claimIds, id);
+		if(isEmpty()){
+			for(int claimId : claimIds){
+				add(puzzle.claim(claimId));
+			}
+		}
+	}
+	
+  /**
+   * <p>Constructs the counterpart of {@code original} in {@code fork}.</p>
+   * @param fork a {@link Puzzle#fork() fork} of {@code original}'s puzzle
+   * @param original the Fact whose counterpart is constructed
+   * @see NodeSet#NodeSet(Puzzle, NodeSet)
+   */
+	Fact(Puzzle fork, Fact original){
+		super(fork, original);
+	}
+	
+  /**
+   * <p>Returns this Fact's {@link NodeSet#id() id} plus the number of Claims in a puzzle of this 
+   * Fact's puzzle's size, since Facts follow Claims among the dense indices of a puzzle's 
+   * nodes.</p>
+   * @return this Fact's id plus the number of Claims in its puzzle
+   */
+	@Override
+	public int denseIndex(){
+		return puzzle.topology().claimCount() + id;
+	}
+	
+	@Override
+	Claim neighbor(int id){
+		return puzzle.claim(id);
+	}
+	
+	@Override
+	void linked(Claim newNeighbor){
+		changeCount++;
+		puzzle.factResized(this, size() - 1);
+	}
+	
+	@Override
+	void unlinked(Claim formerNeighbor){
+		changeCount++;
+		puzzle.factResized(this, size() + 1);
+	}
+	
 	@Override
 	public boolean equals(Object o){
 		if(o instanceof Fact){
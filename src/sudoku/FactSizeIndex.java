@@ -0,0 +1,197 @@
+package sudoku;
+
+import common.Bits;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * <p>An index of the Facts of a {@link SudokuNetwork} by their current {@link Fact#size() size},
+ * letting the network's Facts be visited smallest-first without sorting them and letting the network
+ * tell whether it is solved in constant time.</p>
+ * <p>Each size has a bucket: a bitstring with a bit set for the {@link NodeSet#id() id} of each
+ * indexed Fact of that size. An indexed Fact's puzzle reports to its index whenever the Fact loses
+ * a Claim, and moving it to its new bucket takes constant time.</p>
+ * <p>The puzzle reports a Fact's changes to the index {@link Puzzle#track(Fact, FactSizeIndex)
+ * built over it most recently}. Building an index over Facts that another index tracked
+ * {@link #supersede() supersedes} that other index, which stops being told about some of its
+ * Facts; so, the network that owns it must build a new one instead of reading it again. The
+ * networks that a Solver splits a puzzle into are disjoint, and each is worked on by a single
+ * thread; so, an index that has not been superseded is only ever read and updated by one thread
+ * at a time.</p>
+ * @author fiveham
+ */
+class FactSizeIndex implements Iterable<Fact>{
+	
+	private Puzzle puzzle;
+	
+  /**
+   * <p>The buckets of this index, indexed by Fact size. A bucket is null until a Fact of its size
+   * is indexed.</p>
+   */
+	private long[][] buckets;
+	
+  /**
+   * <p>The number of Facts in each bucket, indexed by Fact size.</p>
+   */
+	private int[] counts;
+	
+  /**
+   * <p>The number of Facts in this index.</p>
+   */
+	private int indexedCount;
+	
+  /**
+   * <p>Whether an index built later has taken over any of this index's Facts. This is set by the
+   * thread that built the later index and read by whichever thread works on this index's network
+   * next.</p>
+   */
+	private volatile boolean superseded;
+	
+  /**
+   * <p>Constructs a FactSizeIndex of the Facts in {@code facts}, which all belong to the same
+   * puzzle, and makes each of them report to this index from now on, superseding any index they 
+   * reported to before.</p>
+   * @param facts the Facts to be indexed
+   */
+	FactSizeIndex(Stream<Fact> facts){
+		this.puzzle = null;
+		this.buckets = new long[0][];
+		this.counts = new int[0];
+		this.indexedCount = 0;
+		this.superseded = false;
+		facts.forEach(this::add);
+	}
+	
+	private void add(Fact f){
+		if(puzzle == null){
+			puzzle = f.getPuzzle();
+		}
+		puzzle.track(f, this);
+		Bits.set(bucket(f.size()), f.id());
+		counts[f.size()]++;
+		indexedCount++;
+	}
+	
+  /**
+   * <p>Marks this index as superseded: some of its Facts now report to an index built later, so 
+   * this index's buckets and counts can no longer be trusted.</p>
+   */
+	void supersede(){
+		superseded = true;
+	}
+	
+  /**
+   * <p>Returns true if an index built later has taken over any of this index's Facts, false
+   * otherwise.</p>
+   * @return true if this index has been {@link #supersede() superseded}, false otherwise
+   */
+	boolean isSuperseded(){
+		return superseded;
+	}
+	
+  /**
+   * <p>Returns the bucket for Facts whose size is {@code size}, creating it if needed.</p>
+   * @param size the size of the Facts in the returned bucket
+   * @return the bucket for Facts whose size is {@code size}
+   */
+	private long[] bucket(int size){
+		if(size >= buckets.length){
+			buckets = Arrays.copyOf(buckets, size + 1);
+			counts = Arrays.copyOf(counts, size + 1);
+		}
+		if(buckets[size] == null){
+			buckets[size] = new long[Bits.wordCount(puzzle.factCount())];
+		}
+		return buckets[size];
+	}
+	
+  /**
+   * <p>Moves {@code f} from the bucket for Facts of size {@code oldSize} to the bucket for its
+   * current size.</p>
+   * @param f an indexed Fact whose size has changed
+   * @param oldSize the size {@code f} had before it changed
+   */
+	void resized(Fact f, int oldSize){
+		Bits.clear(buckets[oldSize], f.id());
+		Bits.set(bucket(f.size()), f.id());
+		counts[oldSize]--;
+		counts[f.size()]++;
+	}
+	
+  /**
+   * <p>Returns the number of indexed Facts that are not {@link Fact#isSolved() solved}.</p>
+   * @return the number of indexed Facts that are not solved
+   */
+	int unsolvedCount(){
+		int solved = Fact.TRUE_CLAIM_COUNT < counts.length ? counts[Fact.TRUE_CLAIM_COUNT] : 0;
+		return indexedCount - solved;
+	}
+	
+  /**
+   * <p>Returns the indexed Facts that are not {@link Fact#isSolved() solved}, in the same order as 
+   * {@link #iterator() iterator()} but without visiting the solved Facts at all.</p>
+   * @return the indexed Facts that are not solved
+   */
+	Iterable<Fact> unsolved(){
+		return () -> new SmallestFirst(Fact.TRUE_CLAIM_COUNT);
+	}
+	
+  /**
+   * <p>Returns an Iterator over the indexed Facts in order of increasing size, and in order of
+   * increasing id among Facts of the same size.</p>
+   * <p>The returned Iterator does not fail when the index changes. It always moves forward from
+   * the last Fact it returned, so a Fact that moves to an earlier bucket after that is skipped.</p>
+   * @return an Iterator over the indexed Facts in order of increasing size
+   */
+	@Override
+	public Iterator<Fact> iterator(){
+		return new SmallestFirst(NO_SIZE);
+	}
+	
+	private static final int NO_SIZE = -1;
+	
+	private class SmallestFirst implements Iterator<Fact>{
+		
+		private final int skippedSize;
+		private int size = 0;
+		private int id = Bits.NO_BIT;
+		
+		private SmallestFirst(int skippedSize){
+			this.skippedSize = skippedSize;
+			advance(0);
+		}
+		
+    /**
+     * <p>Moves this Iterator to the first indexed Fact at or after id {@code from} in the current
+     * bucket or else in a later bucket.</p>
+     * @param from the id from which to start looking in the current bucket
+     */
+		private void advance(int from){
+			for(; size < buckets.length; ++size, from = 0){
+				if(size != skippedSize 
+				    && buckets[size] != null 
+				    && (id = Bits.nextSetBit(buckets[size], from)) != Bits.NO_BIT){
+					return;
+				}
+			}
+			id = Bits.NO_BIT;
+		}
+		
+		@Override
+		public boolean hasNext(){
+			return id != Bits.NO_BIT;
+		}
+		
+		@Override
+		public Fact next(){
+			if(id == Bits.NO_BIT){
+				throw new NoSuchElementException();
+			}
+			Fact result = puzzle.fact(id);
+			advance(id + 1);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package sudoku;
+
+import common.Sets;
+import java.util.HashSet;
+
+/**
+ * <p>An Adjacency backed by a {@link HashSet}. This is the storage used by a {@link Puzzle} with
+ * the {@link Puzzle.Backend#HASH HASH} backend.</p>
+ * @author fiveham
+ * @param <T> the type of the nodes recorded
+ */
+class HashAdjacency<T> extends HashSet<T> implements Adjacency<T>{
+	
+	private static final long serialVersionUID = -1530432962567361367L;
+	
+  /**
+   * <p>Constructs a HashAdjacency with room for {@code expectedSize} nodes.</p>
+   * @param expectedSize the number of nodes expected to be recorded
+   */
+	HashAdjacency(int expectedSize){
+		super(expectedSize * Sets.JAVA_UTIL_HASHSET_SIZE_FACTOR);
+	}
+	
+  /**
+   * <p>Returns an empty HashAdjacency, since the nodes recorded here belong to the original 
+   * puzzle, not the fork.</p>
+   * @param owner the counterpart of this HashAdjacency's owner in the fork
+   * @return an empty HashAdjacency with room for as many nodes as are recorded here
+   */
+	@Override
+	public Adjacency<T> fork(NodeSet<?, ?> owner){
+		return new HashAdjacency<>(size());
+	}
+}
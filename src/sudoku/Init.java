@@ -19,12 +19,25 @@ public class Init extends Fact {
    * as true.</p>
    * @param puzzle the puzzle one of whose initial values this Init indicates
    * @param c the Claim made true by the puzzle having the initial value indicated by this Init
+   * @param id this Init's {@link NodeSet#id() id}, which must follow the ids of all the Rules of 
+   * {@code puzzle}
    */
-	public Init(Puzzle puzzle, Claim c) {
-		super(puzzle, Collections.singletonList(c), c.hashCode());
+	public Init(Puzzle puzzle, Claim c, int id) {
+		super(puzzle, Collections.singletonList(c), id, c.hashCode());
 		this.claim = c;
 	}
 	
+  /**
+   * <p>Constructs the counterpart of {@code original} in {@code fork}, whose Claims must already 
+   * exist.</p>
+   * @param fork a {@link Puzzle#fork() fork} of {@code original}'s puzzle
+   * @param original the Init whose counterpart is constructed
+   */
+	Init(Puzzle fork, Init original){
+		super(fork, original);
+		this.claim = fork.claim(original.claim.id());
+	}
+	
   /**
    * <p>Returns the Claim that this Init marks true.</p>
    * @return the Claim that this Init marks true
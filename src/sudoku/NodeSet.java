@@ -1,7 +1,10 @@
 package sudoku;
 
+import common.DenselyIndexed;
 import common.Sets;
 import common.graph.Vertex;
+import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -20,42 +23,91 @@ import java.util.stream.Collectors;
  * be backed by a single {@literal Collection<NodeSet<?, ?>} rather than two Collections of 
  * different parameter-types.</p>
  * 
+ * <p>The edges of a NodeSet are stored in an {@link Adjacency} chosen by the 
+ * {@link Puzzle#backend() backend} of the NodeSet's puzzle.</p>
+ * 
+ * <p>The {@link #denseIndex() dense indices} of a puzzle's nodes number its Claims first and its 
+ * Facts after them, so that every node of the puzzle has a distinct one and a 
+ * {@link common.Universe Universe} of its nodes needs no hash table.</p>
+ * 
  * @author fiveham
  * @param <T> The type of the elements of this set.
  * @param <S> The type of this set
  */
 public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>> 
-    extends HashSet<T> 
-    implements Vertex<NodeSet<?, ?>>{
+    extends AbstractSet<T> 
+    implements Vertex<NodeSet<?, ?>>, DenselyIndexed, Serializable{
 	
 	private static final long serialVersionUID = 6938429068342291749L;
 	
 	protected final Puzzle puzzle;
+	protected final int id;
 	protected final int hashCode;
+	private final Adjacency<T> adjacency;
 	
 	/**
-	 * <p>Constructs a NodeSet that belongs to {@code puzzle} and has {@code hash} as its 
-	 * {@link #hashCode() hashcode}.</p>
+	 * <p>Constructs a NodeSet that belongs to {@code puzzle}, has room for {@code initialCapacity} 
+	 * neighbors, and has the specified {@link #id() id} and {@link #hashCode() hashcode}.</p>
 	 * @param puzzle the puzzle to which this NodeSet belongs
+	 * @param initialCapacity the number of neighbors this NodeSet is expected to have
+	 * @param id this NodeSet's id
 	 * @param hash this NodeSet's hashcode
 	 * @see #hashCode()
 	 */
-	protected NodeSet(Puzzle puzzle, int hash){
+	protected NodeSet(Puzzle puzzle, int initialCapacity, int id, int hash){
 		this.puzzle = puzzle;
+		this.id = id;
 		this.hashCode = hash;
+		this.adjacency = puzzle.backend().adjacency(this, initialCapacity);
 	}
 	
 	/**
-	 * <p>Constructs a </p>
+	 * <p>Constructs a NodeSet that belongs to {@code puzzle}, has room for {@code initialCapacity} 
+	 * neighbors, and uses {@code id} as both its {@link #id() id} and its 
+	 * {@link #hashCode() hashcode}.</p>
 	 * @param puzzle the puzzle to which this NodeSet belongs
-	 * @param initialCapacity the initial capacity of this set
-	 * @param hash this NodeSet's hashcode
-   * @see #hashCode()
+	 * @param initialCapacity the number of neighbors this NodeSet is expected to have
+	 * @param id this NodeSet's id and hashcode
+	 */
+	protected NodeSet(Puzzle puzzle, int initialCapacity, int id){
+		this(puzzle, initialCapacity, id, id);
+	}
+	
+	/**
+	 * <p>Constructs a NodeSet that belongs to {@code puzzle}, whose neighbors are to be the nodes 
+	 * whose ids are in {@code template}, and which uses {@code id} as both its {@link #id() id} and 
+	 * its {@link #hashCode() hashcode}.</p>
+	 * <p>Depending on {@code puzzle}'s {@link Puzzle#backend() backend}, this NodeSet either starts 
+	 * out already linked to those neighbors or starts out empty.</p>
+	 * @param puzzle the puzzle to which this NodeSet belongs
+	 * @param template the ids of this NodeSet's neighbors in {@code puzzle}'s 
+	 * {@link Puzzle#topology() topology}
+	 * @param id this NodeSet's id and hashcode
+	 * @see Puzzle.Backend#adjacency(NodeSet, int[])
 	 */
-	protected NodeSet(Puzzle puzzle, int initialCapacity, int hash) {
-		super(initialCapacity * Sets.JAVA_UTIL_HASHSET_SIZE_FACTOR);
+	NodeSet(Puzzle puzzle, int[] template, int id){
 		this.puzzle = puzzle;
-		this.hashCode = hash;
+		this.id = id;
+		this.hashCode = id;
+		this.adjacency = puzzle.backend().adjacency(this, template);
+	}
+	
+	/**
+	 * <p>Constructs a NodeSet that belongs to {@code puzzle}, a {@link Puzzle#fork() fork} of 
+	 * {@code original}'s puzzle, and has the same {@link #id() id} and {@link #hashCode() hashcode} 
+	 * as {@code original}.</p>
+	 * <p>Depending on {@code puzzle}'s {@link Puzzle#backend() backend}, this NodeSet either starts 
+	 * out linked to the counterparts of {@code original}'s neighbors, sharing {@code original}'s 
+	 * edge state until one of them changes, or starts out empty.</p>
+	 * @param puzzle the fork to which this NodeSet belongs
+	 * @param original the node of which this NodeSet is the counterpart in {@code puzzle}
+	 * @see Adjacency#fork(NodeSet)
+	 */
+	NodeSet(Puzzle puzzle, NodeSet<T, S> original){
+		this.puzzle = puzzle;
+		this.id = original.id;
+		this.hashCode = original.hashCode;
+		this.adjacency = original.adjacency.fork(this);
 	}
 	
   /**
@@ -66,6 +118,35 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 		return puzzle;
 	}
 	
+  /**
+   * <p>Returns this NodeSet's id, a non-negative int that is unique among the NodeSets of the same 
+   * kind (Claim or Fact) in this NodeSet's puzzle. For a Claim or a Rule, this is its 
+   * {@link #linearizeCoords(int,int,int,int) linearized} coordinates.</p>
+   * @return this NodeSet's id
+   */
+	public int id(){
+		return id;
+	}
+	
+  /**
+   * <p>Returns the node of type {@code T} in this NodeSet's puzzle whose {@link #id() id} is 
+   * {@code id}.</p>
+   * <p>This lets an {@link Adjacency} record neighbors by id alone.</p>
+   * @param id the id of a node that can be a neighbor of this NodeSet
+   * @return the node of type {@code T} in this NodeSet's puzzle whose id is {@code id}
+   */
+	abstract T neighbor(int id);
+	
+	@Override
+	public int size(){
+		return adjacency.size();
+	}
+	
+	@Override
+	public boolean contains(Object o){
+		return adjacency.contains(o);
+	}
+	
 	/**
 	 * <p>Links this node with {@code otherNode}.</p>
 	 * @return true if the added connection was not present before the call, false otherwise
@@ -73,8 +154,9 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	@Override
 	@SuppressWarnings("unchecked")
 	public final boolean add(T unlinkedNode){
-		boolean change = super.add(unlinkedNode);
+		boolean change = adjacency.add(unlinkedNode);
 		if(change){
+			linked(unlinkedNode);
 			unlinkedNode.add((S)this);
 		}
 		return change;
@@ -95,9 +177,11 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	 * node.</p>
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public final boolean remove(Object linkedNode){
-		boolean change = super.remove(linkedNode);
+		boolean change = adjacency.remove(linkedNode);
 		if(change){
+			unlinked((T) linkedNode);
 			((NodeSet<?, ?>) linkedNode).remove(this);
 		}
 		return change;
@@ -130,7 +214,7 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	@Override
 	public final boolean retainAll(Collection<?> otherNodes){
 		boolean change = false;
-		Iterator<T> linkedNodes = super.iterator();
+		Iterator<T> linkedNodes = adjacency.iterator();
 		for(T linkedNode; linkedNodes.hasNext();){
 			if(!otherNodes.contains(linkedNode = linkedNodes.next())){
 				remove(linkedNode);
@@ -152,6 +236,22 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 		}
 	}
 	
+  /**
+   * <p>Called after an edge with {@code newNeighbor} is added on this NodeSet's side, before it is 
+   * added on the other side. Does nothing by default.</p>
+   * @param newNeighbor the node that just became a neighbor of this NodeSet
+   */
+	void linked(T newNeighbor){
+	}
+	
+  /**
+   * <p>Called after the edge with {@code formerNeighbor} is removed from this NodeSet's side, before
+   * it is removed from the other side. Does nothing by default.</p>
+   * @param formerNeighbor the node that just stopped being a neighbor of this NodeSet
+   */
+	void unlinked(T formerNeighbor){
+	}
+	
 	@Override
 	public final Iterator<T> iterator(){
 		return new SafeRemovingIterator();
@@ -166,13 +266,14 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	 */
 	private class SafeRemovingIterator implements Iterator<T>{
 	  
-		private Iterator<T> wrapped = NodeSet.super.iterator();
+		private Iterator<T> wrapped = adjacency.iterator();
 		private T lastResult = null;
 		
 		@Override
 		public void remove(){
 			if(lastResult != null){
 				wrapped.remove();
+				unlinked(lastResult);
 				lastResult.remove(NodeSet.this);
 				lastResult = null;
 			} else{
@@ -201,6 +302,7 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
   /**
    * <p>Returns a set of vertices that share at least one {@link #neighbors() neighbor} in common 
    * with this vertex and which are not directly connected to this vertex.</p>
+   * <p>{@link Claim} overrides this with a lookup in its puzzle's {@link Topology topology}.</p>
    * @return a set of vertices that share at least one {@link #neighbors() neighbor} in common with 
    * this vertex and which are not directly connected to this vertex
    */
@@ -215,8 +317,8 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	}
 	
   /**
-   * <p>Returns the toString() content for this NodeSet as if it were only a HashSet.</p>
-   * @return {@link HashSet#toString() super.toString()}
+   * <p>Returns the toString() content for this NodeSet as if it were only a set.</p>
+   * @return {@link java.util.AbstractCollection#toString() super.toString()}
    */
 	public String contentString(){
 		return super.toString();
@@ -227,7 +329,7 @@ public abstract class NodeSet<T extends NodeSet<S, T>, S extends NodeSet<T, S>>
 	 * in the content of the set.</p>
 	 * 
 	 * <p>Because a NodeSet contains (references to) its neighbors as elements, a NodeSet's elements 
-	 * all contain (references to) that NodeSet itself. Nodeset extends HashSet; so, the 
+	 * all contain (references to) that NodeSet itself. Nodeset extends AbstractSet; so, the 
 	 * implementation of hashCode available to NodeSet without overriding the method returns the sum 
 	 * of the hashcodes of the elements of the set, but since a NodeSet only contains other NodeSets, 
 	 * no concrete values can ever be extracted to begin summing; rather, a call for one NodeSet's 
@@ -1,5 +1,7 @@
 package sudoku;
 
+import common.BackedSet;
+import common.Bits;
 import common.Pair;
 import common.Universe;
 import java.io.File;
@@ -7,10 +9,10 @@ import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
 import java.util.stream.StreamSupport;
 import sudoku.parse.Parser;
 import sudoku.parse.SadmanParser;
@@ -54,6 +56,31 @@ public class Puzzle extends SudokuNetwork{
    */
 	private List<List<IndexInstance>> dimensions;
 	
+	private final Backend backend;
+	
+  /**
+   * <p>The structure this Puzzle shares with every other puzzle of the same magnitude.</p>
+   */
+	private final Topology topology;
+	
+  /**
+   * <p>A bitstring with a bit set for the {@link NodeSet#id() id} of each Claim of this Puzzle that 
+   * has not been {@link Claim#setFalse() set false}. The Solver threads working on different parts 
+   * of this Puzzle falsify Claims whose ids share words; so, the words are updated atomically.</p>
+   */
+	private final AtomicLongArray liveClaims;
+	
+	private final Trail trail;
+	
+  /**
+   * <p>The {@link FactSizeIndex} that tracks each of this Puzzle's Facts, by the Fact's 
+   * {@link NodeSet#id() id}, with null for a Fact that no index tracks. A Fact is tracked by the 
+   * index built over it most recently; building an index over a Fact supersedes the index that 
+   * tracked it before, so the network that owns that index rebuilds it instead of reading sizes 
+   * it was no longer told about.</p>
+   */
+	private final FactSizeIndex[] sizeIndexes;
+	
 	private final Universe<Fact> factUniverse;
 	private final Universe<Claim> claimUniverse;
 	
@@ -66,28 +93,114 @@ public class Puzzle extends SudokuNetwork{
 		this(chooseParser(f, charset));
 	}
 	
+  /**
+   * <p>Constructs a Puzzle using the text in {@code f} whose nodes store their edges using the 
+   * specified {@code backend}.</p>
+   * @param f the file containing the puzzle in text form
+   * @param charset the name of the charset to be used to read {@code f}
+   * @param backend the storage used for the edges of this Puzzle's graph
+   * @throws FileNotFoundException if {@code f} cannot be found or read
+   */
+	public Puzzle(File f, String charset, Backend backend) throws FileNotFoundException{
+		this(chooseParser(f, charset), backend);
+	}
+	
 	/**
 	 * <p>Constructs a Puzzle using the information supplied by {@code parser}.</p>
 	 * @param parser tells the constructor what the magnitude and initial values are for this Puzzle
 	 */
 	public Puzzle(Parser parser){
+		this(parser, Backend.HASH);
+	}
+	
+	/**
+	 * <p>Constructs a Puzzle using the information supplied by {@code parser} whose nodes store 
+	 * their edges using the specified {@code backend}.</p>
+	 * @param parser tells the constructor what the magnitude and initial values are for this Puzzle
+	 * @param backend the storage used for the edges of this Puzzle's graph
+	 */
+	public Puzzle(Parser parser, Backend backend){
 		super(parser.mag());
+		this.backend = backend;
+		this.topology = Topology.forMagnitude(magnitude);
+		this.liveClaims = genLiveClaims(topology.claimCount());
+		this.trail = new Trail(this);
 		
 		this.indices = genIndices(sideLength, this);
 		this.dimensions = genDimensions(indices, this);
 		
 		this.claims = new SpaceMap(this);
-		this.nodes.addAll(genRuleNodes(this, sideLength, claims));
-		this.nodes.ensureCapacity(nodes.size()+sideLength*sideLength*sideLength);
-		StreamSupport.stream(claims.spliterator(), false).forEach(nodes::add);
+		List<Rule> rules = genRuleNodes(this);
+		this.nodes.ensureCapacity(rules.size() + topology.claimCount());
+		this.ruleNodes.ensureCapacity(rules.size());
+		this.claimNodes.ensureCapacity(topology.claimCount());
+		rules.forEach(this::addNode);
+		StreamSupport.stream(claims.spliterator(), false).forEach(this::addNode);
 		
 		for(Claim c : parseText(parser.values())){
-			Init specificValue = new Init(this, c);
-			nodes.add(specificValue);
+			addNode(new Init(this, c, factCount()));
+		}
+		
+		this.sizeIndexes = new FactSizeIndex[factCount()];
+		this.claimUniverse = genClaimUniverse(this);
+		this.factUniverse = genFactUniverse(this);
+	}
+	
+  /**
+   * <p>Constructs a {@link #fork() fork} of {@code original}.</p>
+   * @param original the Puzzle whose current state is copied
+   */
+	private Puzzle(Puzzle original){
+		super(original.magnitude);
+		this.backend = original.backend;
+		this.topology = original.topology;
+		this.liveClaims = new AtomicLongArray(original.liveClaims.length());
+		for(int i = 0; i < liveClaims.length(); ++i){
+			liveClaims.set(i, original.liveClaims.get(i));
+		}
+		this.trail = new Trail(this);
+		
+		this.indices = genIndices(sideLength, this);
+		this.dimensions = genDimensions(indices, this);
+		
+		this.claims = new SpaceMap(this, original.claims);
+		this.nodes.ensureCapacity(original.nodes.size());
+		this.ruleNodes.ensureCapacity(original.ruleNodes.size());
+		this.claimNodes.ensureCapacity(original.claimNodes.size());
+		this.initNodes.ensureCapacity(original.initNodes.size());
+		original.ruleNodes.forEach((r) -> addNode(new Rule(this, r)));
+		StreamSupport.stream(claims.spliterator(), false).forEach(this::addNode);
+		original.initNodes.forEach((i) -> addNode(new Init(this, i)));
+		
+		for(Claim c : original.claimNodes){
+			Claim counterpart = claim(c.id());
+			if(counterpart.size() != c.size()){
+				for(Fact f : c){
+					counterpart.add(fact(f.id()));
+				}
+			}
 		}
 		
-		this.claimUniverse = new Universe<>(claimStream());
-		this.factUniverse = new Universe<>(factStream());
+		this.sizeIndexes = new FactSizeIndex[factCount()];
+		this.claimUniverse = genClaimUniverse(this);
+		this.factUniverse = genFactUniverse(this);
+	}
+	
+  /**
+   * <p>Returns a fork of this Puzzle: a new Puzzle whose graph is a copy of this Puzzle's graph as 
+   * it is now, and which can be solved, or explored with its own {@link #trail() trail}, 
+   * independently of this one.</p>
+   * <p>The fork shares everything that never changes with this Puzzle: the 
+   * {@link #topology() topology}, and, with the {@link Backend#COMPACT COMPACT} backend, each 
+   * node's edge state as well, which a node copies only the first time it or its counterpart 
+   * changes. So, making a fork only allocates the nodes themselves, and each side pays for the 
+   * edges it changes as it changes them. With the {@link Backend#HASH HASH} backend, the edges 
+   * are re-linked.</p>
+   * <p>This Puzzle must not be changed while the fork is being made.</p>
+   * @return a new Puzzle whose graph is a copy of this Puzzle's graph as it is now
+   */
+	public Puzzle fork(){
+		return new Puzzle(this);
 	}
 	
 	/**
@@ -112,32 +225,70 @@ public class Puzzle extends SudokuNetwork{
 	
   /**
    * <p>Generates the Rules for {@code p}.</p>
-   * @param p a sudoku puzzle
-   * @param sideLength the side-length of {@code p}
-   * @param claims {@code p}'s SpaceMap of Claims
+   * <p>The Rules are generated in order of {@link RuleType#ordinal() type}, then first dimension, 
+   * then second dimension, so each Rule's index in the returned list is its 
+   * {@link NodeSet#id() id}.</p>
+   * <p>The Claims of each Rule are taken from {@code p}'s {@link #topology() topology} rather than 
+   * decoded from the Rule's dimensions.</p>
+   * @param p a sudoku puzzle whose Claims have already been created
    * @return a list of the Rules for {@code p}
    */
-	private List<Rule> genRuleNodes(Puzzle p, int sideLength, SpaceMap claims){
-		List<Rule> rules = new ArrayList<>(
-		    RuleType.values().length * (int) Math.pow(p.sideLength, DIMENSION_COUNT));
+	private static List<Rule> genRuleNodes(Puzzle p){
+		List<Rule> rules = new ArrayList<>(p.topology.ruleCount());
 		for(RuleType type : RuleType.values()){
 			for(IndexInstance dimA : type.dimA(p)){
 				for(IndexInstance dimB : type.dimB(p)){
-					Rule newerRule = new Rule(
-							p, 
-							type, 
-							type.dimInsideRule(p).stream()
-									.map((dimC) -> claims.get(dimA, dimB, dimC))
-									.collect(Collectors.toList()), 
-							dimA, 
-							dimB);
-					rules.add(newerRule);
+					rules.add(new Rule(p, type, dimA, dimB));
 				}
 			}
 		}
 		return rules;
 	}
 	
+  /**
+   * <p>Generates the Universe of {@code p}'s Claims, ordered by {@link NodeSet#id() id}, so that 
+   * each Claim's index in the Universe is its id, which is its 
+   * {@link NodeSet#linearizeCoords(int,int,int,int) linearized} coordinates.</p>
+   * @param p a sudoku puzzle whose Claims have already been created
+   * @return the Universe of {@code p}'s Claims, ordered by id
+   * @see #claimsOf(Fact)
+   */
+	private static Universe<Claim> genClaimUniverse(Puzzle p){
+		List<Claim> claims = new ArrayList<>(p.topology.claimCount());
+		for(int id = 0; id < p.topology.claimCount(); ++id){
+			claims.add(p.claim(id));
+		}
+		return new Universe<>(claims);
+	}
+	
+  /**
+   * <p>Generates the Universe of {@code p}'s Facts, ordered by {@link NodeSet#id() id}, so that 
+   * each Fact's index in the Universe is its id.</p>
+   * @param p a sudoku puzzle whose Facts have already been created
+   * @return the Universe of {@code p}'s Facts, ordered by id
+   */
+	private static Universe<Fact> genFactUniverse(Puzzle p){
+		List<Fact> facts = new ArrayList<>(p.factCount());
+		for(int id = 0; id < p.factCount(); ++id){
+			facts.add(p.fact(id));
+		}
+		return new Universe<>(facts);
+	}
+	
+  /**
+   * <p>Generates a bitstring with the bits for {@code claimCount} Claims all set.</p>
+   * @param claimCount the number of Claims in a puzzle
+   * @return a bitstring with the bits for {@code claimCount} Claims all set
+   */
+	private static AtomicLongArray genLiveClaims(int claimCount){
+		AtomicLongArray result = new AtomicLongArray(Bits.wordCount(claimCount));
+		for(int i = 0; i < result.length(); ++i){
+			int bitsInWord = Math.min(Bits.BITS_PER_WORD, claimCount - i * Bits.BITS_PER_WORD);
+			result.set(i, bitsInWord == Bits.BITS_PER_WORD ? -1L : (1L << bitsInWord) - 1);
+		}
+		return result;
+	}
+	
   /**
    * <p>Generates the lists of dimension-associated valid coordinate values for {@code p}.</p>
    * @param indices the valid dimensional positions in {@code p}
@@ -195,23 +346,169 @@ public class Puzzle extends SudokuNetwork{
 	public Claim claim(int x, int y, int z){
 		return claims.get(x, y, z);
 	}
+	
+  /**
+   * <p>Returns the Claim belonging to this Puzzle whose {@link NodeSet#id() id} is {@code id}.</p>
+   * @param id the id of the Claim returned
+   * @return the Claim belonging to this Puzzle whose id is {@code id}
+   * @throws ArrayIndexOutOfBoundsException if this Puzzle doesn't have a Claim with that id
+   */
+	Claim claim(int id){
+		return claims.get(id);
+	}
+	
+  /**
+   * <p>Returns the Fact belonging to this Puzzle whose {@link NodeSet#id() id} is {@code id}.</p>
+   * <p>The Rules come first in id order, in the order of their linearized coordinates, followed by 
+   * the Inits; so, this is a direct lookup in the list of Rules or of Inits.</p>
+   * @param id the id of the Fact returned
+   * @return the Fact belonging to this Puzzle whose id is {@code id}
+   * @throws IndexOutOfBoundsException if this Puzzle doesn't have a Fact with that id
+   */
+	Fact fact(int id){
+		int ruleCount = ruleNodes.size();
+		return id < ruleCount ? ruleNodes.get(id) : initNodes.get(id - ruleCount);
+	}
+	
+  /**
+   * <p>Returns the number of Facts belonging to this Puzzle, which is one more than the greatest 
+   * {@link NodeSet#id() id} of any of them.</p>
+   * @return the number of Facts belonging to this Puzzle
+   */
+	int factCount(){
+		return ruleNodes.size() + initNodes.size();
+	}
+	
+  /**
+   * <p>Makes {@code index} the index that tracks {@code f}, 
+   * {@link FactSizeIndex#supersede() superseding} the index that tracked it until now, if any.</p>
+   * @param f a Fact of this Puzzle
+   * @param index the index that tracks {@code f} from now on
+   */
+	void track(Fact f, FactSizeIndex index){
+		FactSizeIndex previous = sizeIndexes[f.id()];
+		if(previous != null && previous != index){
+			previous.supersede();
+		}
+		sizeIndexes[f.id()] = index;
+	}
+	
+  /**
+   * <p>Tells the index that tracks {@code f}, if any, that {@code f}'s size has changed.</p>
+   * <p>This is called as {@code f} gains or loses Claims, including while this Puzzle is still 
+   * being built, before any index can exist.</p>
+   * @param f a Fact of this Puzzle whose size has changed
+   * @param oldSize the size {@code f} had before it changed
+   */
+	void factResized(Fact f, int oldSize){
+		FactSizeIndex index = sizeIndexes == null ? null : sizeIndexes[f.id()];
+		if(index != null){
+			index.resized(f, oldSize);
+		}
+	}
+	
+  /**
+   * <p>Returns the storage used for the edges of this Puzzle's graph.</p>
+   * @return the storage used for the edges of this Puzzle's graph
+   */
+	public Backend backend(){
+		return backend;
+	}
+	
+  /**
+   * <p>Returns the structure this Puzzle shares with every other puzzle of the same 
+   * magnitude.</p>
+   * @return the structure this Puzzle shares with every other puzzle of the same magnitude
+   */
+	Topology topology(){
+		return topology;
+	}
+	
+  /**
+   * <p>Returns word {@code wordIndex} of the bitstring of this Puzzle's Claims that have not been 
+   * {@link Claim#setFalse() set false}, indexed by {@link NodeSet#id() id}.</p>
+   * @param wordIndex the index of a word
+   * @return word {@code wordIndex} of the bitstring of this Puzzle's Claims that have not been set 
+   * false
+   */
+	long liveClaimWord(int wordIndex){
+		return liveClaims.get(wordIndex);
+	}
+	
+  /**
+   * <p>Records that {@code c} has lost all its Facts and is therefore false.</p>
+   * @param c a Claim of this Puzzle that has no neighbors left
+   */
+	void claimFalsified(Claim c){
+		long bit = 1L << c.id();
+		liveClaims.accumulateAndGet(Bits.wordIndex(c.id()), ~bit, (word, mask) -> word & mask);
+	}
+	
+  /**
+   * <p>Records that {@code c}, having been false, has regained a Fact.</p>
+   * @param c a Claim of this Puzzle that has just regained a neighbor
+   * @see Trail#rollbackTo(int)
+   */
+	void claimRevived(Claim c){
+		long bit = 1L << c.id();
+		liveClaims.accumulateAndGet(Bits.wordIndex(c.id()), bit, (word, mask) -> word | mask);
+	}
+	
+  /**
+   * <p>Returns the undo log of the edges removed from this Puzzle's graph.</p>
+   * @return the undo log of the edges removed from this Puzzle's graph
+   */
+	public Trail trail(){
+		return trail;
+	}
   
   /**
    * <p>Returns the {@link Universe} of all the Facts belonging to this Puzzle.</p>
    * @return the {@link Universe} of all the Facts belonging to this Puzzle
    */
+	@Override
 	public Universe<Fact> factUniverse(){
 		return factUniverse;
 	}
 	
 	/**
 	 * <p>Returns the {@link Universe} of all the Claims belonging to this Puzzle.</p>
+	 * <p>The Claims are in order of their {@link NodeSet#id() ids}, which are their 
+	 * {@link NodeSet#linearizeCoords(int,int,int,int) linearized} coordinates; so, the Claims of a 
+	 * CELL Rule are consecutive in this Universe, and the Claims of any other Rule are evenly 
+	 * spaced.</p>
 	 * @return the {@link Universe} of all the Claims belonging to this Puzzle
 	 */
+	@Override
 	public Universe<Claim> claimUniverse(){
 		return claimUniverse;
 	}
 	
+  /**
+   * <p>Returns a new BackedSet over this Puzzle's {@link #claimUniverse() claim universe} 
+   * containing the Claims that {@code f} currently has.</p>
+   * <p>For a Rule, this takes a few word operations rather than a lookup per Claim: the Rule's 
+   * precomputed {@link Topology#ruleWords(int) claim bitstring} is combined with the bitstring of 
+   * this Puzzle's Claims that have not been set false. A Claim loses its Facts all at once, when 
+   * it is set false, so those are exactly the Claims the Rule still has.</p>
+   * @param f a Fact of this Puzzle
+   * @return a new BackedSet containing the Claims that {@code f} currently has
+   */
+	@Override
+	public BackedSet<Claim> claimsOf(Fact f){
+		BackedSet<Claim> result = claimUniverse.back();
+		if(f instanceof Rule && f.getPuzzle() == this){
+			int[] wordIndices = topology.ruleWordIndices(f.id());
+			long[] words = topology.ruleWords(f.id());
+			for(int i = 0; i < wordIndices.length; ++i){
+				result.addWord(wordIndices[i], words[i] & liveClaimWord(wordIndices[i]));
+			}
+		} else{
+			result.addAll(f);
+		}
+		return result;
+	}
+	
   /**
    * <p>Returns a list (sorted) of all the {@link #IndexValue index values} that exist for this
    * Puzzle.</p>
@@ -325,55 +622,38 @@ public class Puzzle extends SudokuNetwork{
    * dimensional contributions of the specified dimensional indices
    */
 	private IndexValue decodeDim(
-	    Function<IndexInstance, Integer> dimComponent, 
+	    ToIntFunction<IndexInstance> dimComponent, 
 	    IndexInstance[] points){
 	  
 		int score = 0;
 		for(IndexInstance dim : points){
-			score += dimComponent.apply(dim);
+			score += dimComponent.applyAsInt(dim);
 		}
 		return indexFromInt(score);
 	}
 	
   /**
-   * <p>Returns a string representing this puzzle. Each cell is represented by its value if known or
-   * by a space if the cell's value is unknown.</p>
-   * @return a string representing this puzzle. Each cell is represented by its value if known or
-   * by a space if the cell's value is unknown
+   * <p>Appends to {@code out} a string representing this puzzle. Each cell is represented by its 
+   * value if known or by {@value #BLANK_CELL} if the cell's value is unknown, and each row of 
+   * cells is on a line of its own.</p>
+   * <p>The cells are read straight from this puzzle's {@link #cells() CELL Rules by position}, 
+   * which are all of its CELL Rules.</p>
+   * @param out the buffer to which this puzzle is rendered
+   * @return {@code out}
    */
 	@Override
-	public String toString(){
-		StringBuilder result = new StringBuilder();
-		
-		class InterNumber implements Supplier<String>{
-			private int useCount = 0;
-			@Override
-			public String get(){
-			  StringBuilder result = new StringBuilder(" ");
-				if(++useCount % sideLength() == 0){
-					result.append(System.lineSeparator());
-				}
-				return result.toString();
+	public StringBuilder render(StringBuilder out){
+		String lineSeparator = System.lineSeparator();
+		for(Rule cell : cells()){
+			out.append(cell.isSolved() 
+			    ? cell.iterator().next().getZ().humanReadableIntValue() 
+			    : BLANK_CELL)
+			    .append(' ');
+			if(cell.dimB().intValue() == sideLength - 1){
+				out.append(lineSeparator);
 			}
 		}
-		
-		Supplier<String> betweenNumbers = new InterNumber();
-		
-		nodeStream()
-				.filter(Rule.class::isInstance)
-				.map(Rule.class::cast)
-				.filter(RuleType.CELL::isTypeOf)
-				.sorted((cell1, cell2) -> {
-					int snake1 = cell1.dimB().intValue() + cell1.dimA().intValue() * sideLength();
-					int snake2 = cell2.dimB().intValue() + cell2.dimA().intValue() * sideLength();
-					return Integer.compare(snake1, snake2);
-				})
-				.forEach((cell) -> result.append(cell.isSolved() 
-						? cell.iterator().next().getZ() 
-						: BLANK_CELL)
-						.append(betweenNumbers.get()));
-		
-		return result.toString();
+		return out;
 	}
 	
   /**
@@ -383,10 +663,11 @@ public class Puzzle extends SudokuNetwork{
    * reached.</p>
    * @param boxIndex the index of the box whose lower-x-coordinate edge's x-coordinate is
    * returned.
+   * @param mag the magnitude of the puzzle
    * @return the x-coordinate of the low-X edge of the box in the {@code boxIndex}-th box of a
    * Puzzle whose {@link Sudoku#magnitude() magnitude} is {@code mag}
    */
-	private static int boxLowX(IndexValue boxIndex, int mag){
+	private static int boxLowX(int boxIndex, int mag){
 		return mag * snakeInSquareX(boxIndex, mag);
 	}
 	
@@ -394,9 +675,10 @@ public class Puzzle extends SudokuNetwork{
    * <p>Returns the y-coordinate of the low-Y edge of the box in this puzzle with the specified 
    * {@link DimensionType#BOX box-index}.</p>
    * @param boxIndex the index of a box in this puzzle
+   * @param mag the magnitude of the puzzle
    * @return the y-coordinate of the low-Y edge of the {@code boxIndex}-th box in this puzzle
    */
-	private static int boxLowY(IndexValue boxIndex, int mag){
+	private static int boxLowY(int boxIndex, int mag){
 		return mag * snakeInSquareY(boxIndex, mag);
 	}
 	
@@ -436,6 +718,68 @@ public class Puzzle extends SudokuNetwork{
    */
 	public static final int BLANK_CELL = 0;
 	
+  /**
+   * <p>The ways a Puzzle's {@link NodeSet nodes} can store their edges. Either way, each Claim and 
+   * Fact is still a {@code Set} of its neighbors, so techniques work the same with both.</p>
+   * @author fiveham
+   */
+	public static enum Backend{
+		
+    /**
+     * <p>Each node keeps its neighbors in a {@link java.util.HashSet HashSet}.</p>
+     */
+		HASH{
+			@Override
+			<T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int expectedSize){
+				return new HashAdjacency<>(expectedSize);
+			}
+			
+			@Override
+			<T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int[] template){
+				return new HashAdjacency<>(template.length);
+			}
+		},
+		
+    /**
+     * <p>Each node keeps the {@link NodeSet#id() ids} of its neighbors in an {@code int} array 
+     * with a bitstring marking which of them are still linked. This takes much less memory per 
+     * edge than {@link #HASH HASH} and removes edges without hashing.</p>
+     * <p>A node built from its puzzle's {@link Topology topology} shares that topology's array of 
+     * neighbor ids until the node gains a neighbor the topology doesn't list, so a new puzzle 
+     * allocates only the bitstrings.</p>
+     */
+		COMPACT{
+			@Override
+			<T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int expectedSize){
+				return new CompactAdjacency<>(owner, expectedSize);
+			}
+			
+			@Override
+			<T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int[] template){
+				return new CompactAdjacency<>(owner, template);
+			}
+		};
+		
+    /**
+     * <p>Returns a new, empty Adjacency for {@code owner}.</p>
+     * @param owner the node whose edges the returned Adjacency stores
+     * @param expectedSize the number of neighbors {@code owner} is expected to have
+     * @return a new, empty Adjacency for {@code owner}
+     */
+		abstract <T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int expectedSize);
+		
+    /**
+     * <p>Returns an Adjacency for {@code owner}, whose neighbors are to be the nodes whose 
+     * {@link NodeSet#id() ids} are in {@code template}. The returned Adjacency either already 
+     * records all those neighbors or is empty, in which case the caller must link them.</p>
+     * @param owner the node whose edges the returned Adjacency stores
+     * @param template the ids of {@code owner}'s neighbors, which must not be modified
+     * @return an Adjacency for {@code owner} that records either all or none of the nodes whose 
+     * ids are in {@code template}
+     */
+		abstract <T extends NodeSet<?, ?>> Adjacency<T> adjacency(NodeSet<?, ?> owner, int[] template);
+	}
+	
   /**
    * <p>Entries in this enum describe properties of the four types of regions in a sudoku puzzle:
    * <ul>
@@ -565,6 +909,30 @@ public class Puzzle extends SudokuNetwork{
 		public List<IndexInstance> dimInsideRule(Puzzle p){
 			return p.indexInstances(dimCType);
 		}
+		
+        /**
+         * <p>Returns the {@link NodeSet#id() id} of the Claim at position {@code c} in the third 
+         * dimension of the Rule of this type at positions {@code a} and {@code b} in the first and 
+         * second dimensions, in a puzzle whose magnitude is {@code magnitude}.</p>
+         * @param a a position in this type's first dimension
+         * @param b a position in this type's second dimension
+         * @param c a position in this type's third dimension
+         * @param magnitude the magnitude of a puzzle
+         * @return the id of the Claim at the specified positions
+         */
+		int claimId(int a, int b, int c, int magnitude){
+			return NodeSet.linearizeCoords(
+			    dimAType.contributionX(a, magnitude) 
+			        + dimBType.contributionX(b, magnitude) 
+			        + dimCType.contributionX(c, magnitude), 
+			    dimAType.contributionY(a, magnitude) 
+			        + dimBType.contributionY(b, magnitude) 
+			        + dimCType.contributionY(c, magnitude), 
+			    dimAType.contributionZ(a, magnitude) 
+			        + dimBType.contributionZ(b, magnitude) 
+			        + dimCType.contributionZ(c, magnitude), 
+			    magnitude * magnitude);
+		}
 	}
 	
     /**
@@ -634,7 +1002,7 @@ public class Puzzle extends SudokuNetwork{
      * dimension
      */
 		public int contributionX(){
-			return type.contribX.apply(val, val.puzzle.magnitude);
+			return type.contributionX(val.intValue(), val.puzzle.magnitude);
 		}
 		
     /**
@@ -644,7 +1012,7 @@ public class Puzzle extends SudokuNetwork{
      * dimension
      */
 		public int contributionY(){
-			return type.contribY.apply(val, val.puzzle.magnitude);
+			return type.contributionY(val.intValue(), val.puzzle.magnitude);
 		}
 		
     /**
@@ -654,7 +1022,7 @@ public class Puzzle extends SudokuNetwork{
      * dimension
      */
 		public int contributionZ(){
-			return type.contribZ.apply(val, val.puzzle.magnitude);
+			return type.contributionZ(val.intValue(), val.puzzle.magnitude);
 		}
 	}
 	
@@ -662,21 +1030,20 @@ public class Puzzle extends SudokuNetwork{
    * <p>A dimensional component contribution function that provides a contribution of zero
    * regardless of its inputs.</p>
    */
-	private static final BiFunction<IndexValue,Integer,Integer> ZERO = (indx, mag) -> 0;
+	private static final IntBinaryOperator ZERO = (indx, mag) -> 0;
 	
   /**
    * <p>A dimensional component contribution function that produces all the the input dimension
    * value as output.</p>
    */
-	private static final BiFunction<IndexValue,Integer,Integer> INT_VALUE = 
-	    (indx, mag) -> indx.intValue();
+	private static final IntBinaryOperator INT_VALUE = (indx, mag) -> indx;
 	
-	private static int snakeInSquareX(IndexValue index, int magnitude){
-		return index.intValue() % magnitude;
+	private static int snakeInSquareX(int index, int magnitude){
+		return index % magnitude;
 	}
 	
-	private static int snakeInSquareY(IndexValue index, int magnitude){
-		return index.intValue() / magnitude;
+	private static int snakeInSquareY(int index, int magnitude){
+		return index / magnitude;
 	}
 	
   /**
@@ -750,15 +1117,52 @@ public class Puzzle extends SudokuNetwork{
 		    Puzzle::snakeInSquareY, 
 		    ZERO);
 		
-		private final BiFunction<IndexValue,Integer,Integer> contribX;
-		private final BiFunction<IndexValue,Integer,Integer> contribY;
-		private final BiFunction<IndexValue,Integer,Integer> contribZ;
+		private final IntBinaryOperator contribX;
+		private final IntBinaryOperator contribY;
+		private final IntBinaryOperator contribZ;
 		
-		private DimensionType(BiFunction<IndexValue,Integer,Integer> contribX, BiFunction<IndexValue,Integer,Integer> contribY, BiFunction<IndexValue,Integer,Integer> contribZ){
+		private DimensionType(
+		    IntBinaryOperator contribX, 
+		    IntBinaryOperator contribY, 
+		    IntBinaryOperator contribZ){
+		  
 			this.contribX = contribX;
 			this.contribY = contribY;
 			this.contribZ = contribZ;
 		}
+		
+    /**
+     * <p>Returns the x-component of the position {@code value} along this dimension in a puzzle 
+     * whose magnitude is {@code magnitude}.</p>
+     * @param value a position along this dimension
+     * @param magnitude the magnitude of a puzzle
+     * @return the x-component of the position {@code value} along this dimension
+     */
+		int contributionX(int value, int magnitude){
+			return contribX.applyAsInt(value, magnitude);
+		}
+		
+    /**
+     * <p>Returns the y-component of the position {@code value} along this dimension in a puzzle 
+     * whose magnitude is {@code magnitude}.</p>
+     * @param value a position along this dimension
+     * @param magnitude the magnitude of a puzzle
+     * @return the y-component of the position {@code value} along this dimension
+     */
+		int contributionY(int value, int magnitude){
+			return contribY.applyAsInt(value, magnitude);
+		}
+		
+    /**
+     * <p>Returns the z-component of the position {@code value} along this dimension in a puzzle 
+     * whose magnitude is {@code magnitude}.</p>
+     * @param value a position along this dimension
+     * @param magnitude the magnitude of a puzzle
+     * @return the z-component of the position {@code value} along this dimension
+     */
+		int contributionZ(int value, int magnitude){
+			return contribZ.applyAsInt(value, magnitude);
+		}
 	}
 	
   /**
@@ -23,12 +23,14 @@ public class RepetetiveTester {
 		  .map((s) -> new File(SADMAN_DIRECTORY + s))
 		  .forEach(puzzles::add);;
 		
+		StringBuilder rendering = new StringBuilder();
 		for(File f : puzzles){
 			try{
 				Solver solver = new Solver(f);
 				System.out.println(f.getName());
 				solver.solve();
-				System.out.println(solver.getTarget().toString());
+				rendering.setLength(0);
+				System.out.println(solver.getTarget().render(rendering));
 			} catch(FileNotFoundException e){
 				System.out.println("Could not find file " + f.getName());
 			} catch(InterruptedException e){
@@ -51,6 +51,44 @@ public class Rule extends Fact{
 		this.dimB = dimB;
 	}
 	
+  /**
+   * <p>Constructs a Rule belonging to the specified Puzzle, having the specified {@code type}, and 
+   * containing the Claims that {@code puzzle}'s {@link Puzzle#topology() topology} lists for a 
+   * Rule of that type at {@code dimA} and {@code dimB}.</p>
+   * @param puzzle the Puzzle to which this Rule belongs, whose Claims must already exist
+   * @param type the {@link Puzzle.RuleType type} of this Rule, whether it is a cell, box, row, or 
+   * column
+   * @param dimA the position of this Rule in its first dimension
+   * @param dimB the position of this Rule in its second dimension
+   */
+	Rule(Puzzle puzzle, RuleType type, IndexInstance dimA, IndexInstance dimB){
+		this(
+		    puzzle, 
+		    type, 
+		    linearizeCoords(type.ordinal(), dimA.intValue(), dimB.intValue(), puzzle.sideLength()), 
+		    dimA, 
+		    dimB);
+	}
+	
+	private Rule(Puzzle puzzle, RuleType type, int id, IndexInstance dimA, IndexInstance dimB){
+		super(puzzle, puzzle.topology().ruleClaims(id), id);
+		this.type = type;
+		this.dimA = dimA;
+		this.dimB = dimB;
+	}
+	
+  /**
+   * <p>Constructs the counterpart of {@code original} in {@code fork}.</p>
+   * @param fork a {@link Puzzle#fork() fork} of {@code original}'s puzzle
+   * @param original the Rule whose counterpart is constructed
+   */
+	Rule(Puzzle fork, Rule original){
+		super(fork, original);
+		this.type = original.type;
+		this.dimA = fork.indexInstances(original.dimA.getType()).get(original.dimA.intValue());
+		this.dimB = fork.indexInstances(original.dimB.getType()).get(original.dimB.intValue());
+	}
+	
 	@Override
 	public boolean equals(Object o){
 		if(o instanceof Rule){
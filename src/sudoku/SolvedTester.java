@@ -0,0 +1,74 @@
+package sudoku;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Solves each puzzle in a directory with each {@link Puzzle.Backend backend} and checks that 
+ * the Puzzle's size-indexed queries agree with its Facts afterward, even though the Solver's 
+ * component networks indexed those Facts after the Puzzle did.</p>
+ * @author fiveham
+ */
+public class SolvedTester {
+	
+	public static final String PUZZLE_DIRECTORY = "./puzzles/";
+	
+	public static void main(String[] args) throws InterruptedException {
+		File directory = new File(args.length > 0 ? args[0] : PUZZLE_DIRECTORY);
+		int failures = 0;
+		for(String name : directory.list()){
+			File f = new File(directory, name);
+			for(Puzzle.Backend backend : Puzzle.Backend.values()){
+				try{
+					Puzzle puzzle = new Puzzle(f, "UTF-8", backend);
+					puzzle.isSolved();
+					new Solver(puzzle, name).solve();
+					String problem = check(puzzle);
+					if(problem != null){
+						System.out.println(name + " " + backend + ": " + problem);
+						failures++;
+					}
+				} catch(FileNotFoundException e){
+					System.out.println("Could not find file " + name);
+				}
+			}
+		}
+		System.out.println(failures == 0 ? "All solved puzzles check out" : failures + " failures");
+		if(failures > 0){
+			System.exit(1);
+		}
+	}
+	
+  /**
+   * <p>Returns a description of the first way in which {@code puzzle}'s 
+   * {@link SudokuNetwork#isSolved() isSolved()}, 
+   * {@link SudokuNetwork#unsolvedFacts() unsolvedFacts()}, or 
+   * {@link SudokuNetwork#factsBySize() factsBySize()} disagrees with the sizes of its Facts, or 
+   * null if they all agree.</p>
+   * @param puzzle a Puzzle that a Solver has worked on
+   * @return a description of a disagreement, or null if there is none
+   */
+	private static String check(Puzzle puzzle){
+		boolean solved = puzzle.factStream().allMatch(Fact::isSolved);
+		if(puzzle.isSolved() != solved){
+			return "isSolved() is " + puzzle.isSolved() + " but every Fact solved is " + solved;
+		}
+		long unsolved = puzzle.factStream().filter((f) -> !f.isSolved()).count();
+		if(puzzle.unsolvedFacts().count() != unsolved){
+			return "unsolvedFacts() has " + puzzle.unsolvedFacts().count() + " Facts, not " + unsolved;
+		}
+		List<Fact> bySize = new ArrayList<>();
+		puzzle.factsBySize().forEach(bySize::add);
+		if(bySize.size() != puzzle.factCount()){
+			return "factsBySize() has " + bySize.size() + " Facts, not " + puzzle.factCount();
+		}
+		for(int i = 1; i < bySize.size(); ++i){
+			if(bySize.get(i - 1).size() > bySize.get(i).size()){
+				return "factsBySize() puts " + bySize.get(i - 1) + " before " + bySize.get(i);
+			}
+		}
+		return null;
+	}
+}
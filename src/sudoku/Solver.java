@@ -28,6 +28,14 @@ public class Solver{
 	
 	private final String source;
 	
+	private final ConsequenceIntersection.Mode mode;
+	
+  /**
+   * <p>The records of the Facts whose last exploration found nothing, shared by this Solver and 
+   * every Solver it spawns.</p>
+   */
+	private final ConsequenceIntersection.UnproductiveFacts unproductive;
+	
   /**
    * <p>Constructs a Solver that works to solve the target specified by the text in {@code f}. The
    * file is read using the system's default encoding.</p>
@@ -54,10 +62,25 @@ public class Solver{
    * @param target the Puzzle to be solved
    */
 	public Solver(Sudoku puzzle, String filename){
-		this(puzzle, new SudokuThreadGroup(filename), new Object(), filename);
+		this(puzzle, filename, ConsequenceIntersection.Mode.SEQUENTIAL);
 	}
 	
-	private Solver(Sudoku target, ThreadEvent eventParent, SudokuThreadGroup group, Object waiter, String source){
+  /**
+   * <p>Constructs a Solver that works to solve the specified {@code puzzle}, trying the puzzle's 
+   * Facts as specified by {@code mode}.</p>
+   * @param target the Puzzle to be solved
+   * @param mode how the {@link ConsequenceIntersection} technique tries the puzzle's Facts
+   */
+	public Solver(Sudoku puzzle, String filename, ConsequenceIntersection.Mode mode){
+		this(
+		    puzzle, new SudokuThreadGroup(filename), new Object(), filename, mode, 
+		    new ConsequenceIntersection.UnproductiveFacts(puzzle));
+	}
+	
+	private Solver(
+	    Sudoku target, ThreadEvent eventParent, SudokuThreadGroup group, Object waiter, String source, 
+	    ConsequenceIntersection.Mode mode, ConsequenceIntersection.UnproductiveFacts unproductive){
+		
 		this.target = target;
 		
 		this.eventParent = eventParent;
@@ -65,10 +88,15 @@ public class Solver{
 		
 		this.lock = waiter;
 		this.source = source;
+		this.mode = mode;
+		this.unproductive = unproductive;
 	}
 	
-	private Solver(Sudoku target, SudokuThreadGroup group, Object waiter, String source){
-		this(target, null, group, waiter, source);
+	private Solver(
+	    Sudoku target, SudokuThreadGroup group, Object waiter, String source, 
+	    ConsequenceIntersection.Mode mode, ConsequenceIntersection.UnproductiveFacts unproductive){
+		
+		this(target, null, group, waiter, source, mode, unproductive);
 		group.setRootSolver(this);
 	}
 	
@@ -113,19 +141,14 @@ public class Solver{
 	private void run(){
 		ThreadEvent processingResult = process();
 		List<SudokuNetwork> networks;
-		if(processingResult != null 
-				&& !(networks = target.connectedComponents().stream()
-				    .map((component) -> new SudokuNetwork(target.magnitude(), component))
-						.filter((component) -> !component.isSolved())
-						.collect(Collectors.toList()))
-				    .isEmpty()){
+		if(processingResult != null && !(networks = unsolvedComponents()).isEmpty()){
 			String name = Thread.currentThread().getName();
 			this.event = processingResult;
 			for(int i = 0; i < networks.size(); ++i){
 				SudokuNetwork network = networks.get(i);
 				new Thread(
 						group, 
-						new Solver(network, event, group, lock, source)::run, 
+						new Solver(network, event, group, lock, source, mode, unproductive)::run, 
 						name + Integer.toString(i, Parser.MAX_RADIX))
 						.start();
 			}
@@ -136,6 +159,21 @@ public class Solver{
 		}
 	}
 	
+  /**
+   * <p>{@link Sudoku#compact() Compacts} the target, then splits it into its connected components 
+   * and returns a network for each of them that is not solved.</p>
+   * <p>Compacting first drops the Claims set false during this round, which would otherwise each 
+   * become a component of their own.</p>
+   * @return a network for each unsolved connected component of the target
+   */
+	private List<SudokuNetwork> unsolvedComponents(){
+		target.compact();
+		return target.connectedComponents().stream()
+		    .map((component) -> new SudokuNetwork(target.magnitude(), component))
+		    .filter((component) -> !component.isSolved())
+		    .collect(Collectors.toList());
+	}
+	
   /**
    * <p>Applies each technique in {@code processors} to {@code target}. If a technique reports
    * that it was made a change to the target, then instead of moving on to the next technique in
@@ -147,7 +185,7 @@ public class Solver{
 	private ThreadEvent process(){
 		return new ThreadEvent(
 		    eventParent, 
-		    new ConsequenceIntersection(target).implications(), 
+		    new ConsequenceIntersection(target, mode, unproductive).implications(), 
 		    Thread.currentThread().getName());
 	}
 	
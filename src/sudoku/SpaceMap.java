@@ -3,6 +3,9 @@ package sudoku;
 import common.NCuboid;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import sudoku.Puzzle.IndexValue;
 import sudoku.Puzzle.IndexInstance;
@@ -40,6 +43,27 @@ class SpaceMap implements Iterable<Claim>{
 		}
 	}
 	
+  /**
+   * <p>Constructs a SpaceMap pertaining to {@code fork} and creates the counterparts in 
+   * {@code fork} of the Claims in {@code original}.</p>
+   * @param fork a {@link Puzzle#fork() fork} of {@code original}'s puzzle
+   * @param original the SpaceMap whose Claims' counterparts are created and managed
+   */
+	SpaceMap(Puzzle fork, SpaceMap original){
+		this.puzzle = fork;
+		
+		int len = original.claimSpace.length;
+		claimSpace = new Claim[len][len][len];
+		
+		for(int x = 0; x < len; ++x){
+			for(int y = 0; y < len; ++y){
+				for(int z = 0; z < len; ++z){
+					claimSpace[x][y][z] = new Claim(fork, original.claimSpace[x][y][z]);
+				}
+			}
+		}
+	}
+	
   /**
    * <p>Returns the Claim in this SpaceMap's puzzle having the specified spatial coordinates.</p>
    * @param x the x-coordinate of the Claim returned
@@ -53,6 +77,20 @@ class SpaceMap implements Iterable<Claim>{
 		return claimSpace[x][y][z];
 	}
 	
+  /**
+   * <p>Returns the Claim in this SpaceMap's puzzle whose {@link NodeSet#id() id} is {@code id}, 
+   * which is that Claim's {@link NodeSet#linearizeCoords(int,int,int,int) linearized} 
+   * coordinates.</p>
+   * @param id the id of the Claim returned
+   * @return the Claim in this SpaceMap's puzzle whose id is {@code id}
+   * @throws ArrayIndexOutOfBoundsException if {@code id} is less than 0 or greater than or equal to 
+   * the cube of this SpaceMap's puzzle's {@link Puzzle#sideLength() side-length}
+   */
+	public Claim get(int id){
+		int len = claimSpace.length;
+		return claimSpace[id / (len * len)][id / len % len][id % len];
+	}
+	
   /**
    * <p>Returns the Claim in this SpaceMap's puzzle having the specified spatial coordinates.</p>
    * @param x the x-coordinate of the Claim returned
@@ -80,7 +118,18 @@ class SpaceMap implements Iterable<Claim>{
 	
 	@Override
 	public Iterator<Claim> iterator(){
-		return new ClaimIterator(ints());
+		return Spliterators.iterator(spliterator());
+	}
+	
+  /**
+   * <p>Returns a Spliterator over this SpaceMap's Claims, in the same order as 
+   * {@link #iterator() iterator()}, which splits claim-space in half along its 
+   * highest-order dimensions, so that full-space scans can run in parallel.</p>
+   * @return a Spliterator over this SpaceMap's Claims
+   */
+	@Override
+	public Spliterator<Claim> spliterator(){
+		return new ClaimSpliterator(new NCuboid<Integer>(ints(), ints(), ints()).coordinateSpliterator());
 	}
 	
 	private List<Integer> ints = null;
@@ -99,30 +148,41 @@ class SpaceMap implements Iterable<Claim>{
 	}
 	
   /**
-   * <p>An {@literal Iterator<Claim>} that traverses claim-space starting from 0,0,0, ending at the 
+   * <p>A {@literal Spliterator<Claim>} that traverses claim-space starting from 0,0,0, ending at the 
    * opposite vertex, and passing through all the Claim coordinates.</p>
+   * <p>The positions of an {@link NCuboid} of {@link #ints() ints()} are the positions in that list 
+   * of its elements, which are the same as the elements themselves; so, the primitive coordinates 
+   * index {@code claimSpace} directly, without unboxing anything.</p>
    * @author fiveham
 	 */
-	private class ClaimIterator implements Iterator<Claim>{
+	private class ClaimSpliterator implements Spliterator<Claim>{
 	  
-		private final Iterator<List<Integer>> cubeIterator;
+		private final Spliterator<int[]> cubeSpliterator;
 		
-		private ClaimIterator(List<Integer> ints){
-			this.cubeIterator =  new NCuboid<Integer>(ints, ints, ints).iterator();
+		private ClaimSpliterator(Spliterator<int[]> cubeSpliterator){
+			this.cubeSpliterator = cubeSpliterator;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super Claim> action){
+			return cubeSpliterator.tryAdvance(
+					(coords) -> action.accept(get(coords[Puzzle.X_DIM], coords[Puzzle.Y_DIM], coords[Puzzle.Z_DIM])));
+		}
+		
+		@Override
+		public Spliterator<Claim> trySplit(){
+			Spliterator<int[]> prefix = cubeSpliterator.trySplit();
+			return prefix == null ? null : new ClaimSpliterator(prefix);
 		}
 		
 		@Override
-		public boolean hasNext(){
-			return cubeIterator.hasNext();
+		public long estimateSize(){
+			return cubeSpliterator.estimateSize();
 		}
 		
 		@Override
-		public Claim next(){
-			List<Integer> coords = cubeIterator.next();
-			int x = coords.get(Puzzle.X_DIM);
-			int y = coords.get(Puzzle.Y_DIM);
-			int z = coords.get(Puzzle.Z_DIM);
-			return get(x, y, z);
+		public int characteristics(){
+			return cubeSpliterator.characteristics() | DISTINCT;
 		}
 	}
 }
@@ -1,6 +1,10 @@
 package sudoku;
 
+import common.BackedSet;
+import common.Universe;
 import common.graph.Graph;
+import java.util.Comparator;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -18,6 +22,16 @@ public interface Sudoku extends Graph<NodeSet<?,?>>{
     return factStream()
         .allMatch(Fact::isSolved);
   }
+  
+  /**
+   * <p>Returns a Stream of the Facts in this Sudoku's underlying Graph that are not 
+   * {@link Fact#isSolved() solved}.</p>
+   * @return a Stream of the Facts in this Sudoku's underlying Graph that are not solved
+   */
+  public default Stream<Fact> unsolvedFacts(){
+    return factStream()
+        .filter((f) -> !f.isSolved());
+  }
 	
   /**
    * <p>Returns a Stream of the Facts in this Sudoku's underlying Graph.</p>
@@ -39,6 +53,59 @@ public interface Sudoku extends Graph<NodeSet<?,?>>{
 	      .map(Claim.class::cast);
 	}
 	
+  /**
+   * <p>Returns a Universe of the Claims in this Sudoku's underlying Graph, over which to build 
+   * BackedSets of those Claims.</p>
+   * <p>This default builds a new Universe on every call; implementations should build one once 
+   * and keep it.</p>
+   * @return a Universe of the Claims in this Sudoku's underlying Graph
+   */
+	public default Universe<Claim> claimUniverse(){
+	  return new Universe<>(claimStream());
+	}
+	
+  /**
+   * <p>Returns a Universe of the Facts in this Sudoku's underlying Graph, over which to index 
+   * those Facts densely.</p>
+   * <p>This default builds a new Universe on every call; implementations should build one once 
+   * and keep it.</p>
+   * @return a Universe of the Facts in this Sudoku's underlying Graph
+   */
+	public default Universe<Fact> factUniverse(){
+	  return new Universe<>(factStream());
+	}
+	
+  /**
+   * <p>Returns a new BackedSet over this Sudoku's {@link #claimUniverse() claim universe} 
+   * containing the Claims that {@code f} currently has.</p>
+   * @param f a Fact in this Sudoku's underlying Graph
+   * @return a new BackedSet containing the Claims that {@code f} currently has
+   */
+	public default BackedSet<Claim> claimsOf(Fact f){
+	  return claimUniverse().back(f);
+	}
+	
+  /**
+   * <p>Removes from this Sudoku's underlying Graph the Claims that have been 
+   * {@link Claim#setFalse() set false} and so have no neighbors left, and returns how many were 
+   * removed.</p>
+   * <p>This default removes nothing.</p>
+   * @return the number of Claims removed
+   */
+	public default int compact(){
+	  return 0;
+	}
+	
+  /**
+   * <p>Returns the Facts in this Sudoku's underlying Graph in order of increasing size.</p>
+   * @return the Facts in this Sudoku's underlying Graph in order of increasing size
+   */
+	public default Iterable<Fact> factsBySize(){
+	  return factStream()
+	      .sorted(Comparator.comparingInt(Fact::size))
+	      .collect(Collectors.toList());
+	}
+	
   /**
    * <p>Returns the fundamental order of this Sudoku. For a Puzzle, this is the square root of the 
    * {@link #sideLength() side length}.</p>
@@ -55,4 +122,14 @@ public interface Sudoku extends Graph<NodeSet<?,?>>{
 	  int m = magnitude();
 	  return m * m;
 	}
+	
+  /**
+   * <p>Appends this Sudoku's {@link Object#toString() string representation} to {@code out}, so 
+   * that a caller printing many Sudokus can reuse one buffer for all of them.</p>
+   * @param out the buffer to which this Sudoku is rendered
+   * @return {@code out}
+   */
+	public default StringBuilder render(StringBuilder out){
+	  return out.append(this);
+	}
 }
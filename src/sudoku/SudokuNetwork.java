@@ -1,11 +1,18 @@
 package sudoku;
 
+import common.BackedSet;
+import common.Bits;
+import common.Universe;
 import common.graph.BasicGraph;
 import common.graph.Graph;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import sudoku.parse.Parser;
 
 /**
@@ -26,6 +33,56 @@ public class SudokuNetwork extends BasicGraph<NodeSet<?, ?>> implements Sudoku{
    */
 	protected final int sideLength;
 	
+  /**
+   * <p>An index of this graph's Facts by size, built the first time it is needed.</p>
+   */
+	private FactSizeIndex factSizeIndex = null;
+	
+  /**
+   * <p>The Universe of this graph's Claims that had not been set false when it was built, built the 
+   * first time it is needed.</p>
+   */
+	private Universe<Claim> claimUniverse = null;
+	
+  /**
+   * <p>A bitstring with a bit set for the {@link NodeSet#id() id} of each Claim in this graph's 
+   * {@link #claimUniverse() claim universe}, built along with that Universe.</p>
+   */
+	private long[] claimUniverseIds = null;
+	
+  /**
+   * <p>For each word of {@link #claimUniverseIds}, the number of Claims in this graph's claim 
+   * universe whose ids fall in earlier words, which is the index in that Universe of the first 
+   * Claim whose id falls in that word, built along with that Universe.</p>
+   */
+	private int[] claimUniverseRanks = null;
+	
+  /**
+   * <p>The Universe of this graph's Facts, built the first time it is needed.</p>
+   */
+	private Universe<Fact> factUniverse = null;
+	
+  /**
+   * <p>This graph's {@link #cells() CELL Rules by position}, built the first time it is 
+   * needed.</p>
+   */
+	private Rule[] cells = null;
+	
+  /**
+   * <p>The Claims among this graph's {@link #nodes nodes}, in the order they were added.</p>
+   */
+	protected final ArrayList<Claim> claimNodes = new ArrayList<>();
+	
+  /**
+   * <p>The Rules among this graph's {@link #nodes nodes}, in the order they were added.</p>
+   */
+	protected final ArrayList<Rule> ruleNodes = new ArrayList<>();
+	
+  /**
+   * <p>The Inits among this graph's {@link #nodes nodes}, in the order they were added.</p>
+   */
+	protected final ArrayList<Init> initNodes = new ArrayList<>();
+	
 	/**
 	 * <p>Constructs a SudokuNetwork having the specified {@code magnitude}.</p>
 	 * @param magnitude the {@link #magnitude() magnitude} of this SudokuNetwork
@@ -43,7 +100,46 @@ public class SudokuNetwork extends BasicGraph<NodeSet<?, ?>> implements Sudoku{
 	 */
 	public SudokuNetwork(int magnitude, Graph<NodeSet<?, ?>> connectedComponent){
 		this(magnitude);
-		this.nodes.addAll(connectedComponent.nodeStream().collect(Collectors.toList()));
+		connectedComponent.nodeStream().forEach(this::addNode);
+	}
+	
+  /**
+   * <p>Adds {@code node} to this graph's {@link #nodes nodes} and to the list for its type.</p>
+   * @param node a Claim, Rule, or Init to be added to this graph
+   */
+	protected void addNode(NodeSet<?, ?> node){
+		nodes.add(node);
+		if(node instanceof Claim){
+			claimNodes.add((Claim) node);
+		} else if(node instanceof Rule){
+			ruleNodes.add((Rule) node);
+			cells = null;
+		} else{
+			initNodes.add((Init) node);
+		}
+	}
+	
+  /**
+   * <p>Removes from this graph's {@link #nodes nodes} every Claim that has been 
+   * {@link Claim#setFalse() set false} and so has no neighbors left. The removed Claims are still 
+   * reachable by their coordinates through their puzzle's {@link Puzzle#claims() SpaceMap}.</p>
+   * <p>A Solver calls this once per round, before splitting this graph into its 
+   * {@link #connectedComponents(Function) components}, so the Claims set false during a round are 
+   * dropped before the next round instead of each becoming a component of its own.</p>
+   * <p>Nothing is removed while the puzzle's {@link Puzzle#trail() trail} has an outstanding mark, 
+   * since rolling back to that mark could give a removed Claim its neighbors back.</p>
+   * @return the number of Claims removed
+   */
+	@Override
+	public int compact(){
+		if(claimNodes.isEmpty() || claimNodes.get(0).getPuzzle().trail().isMarked()){
+			return 0;
+		}
+		int oldSize = claimNodes.size();
+		if(claimNodes.removeIf(Claim::isEmpty)){
+			nodes.removeIf((node) -> node instanceof Claim && node.isEmpty());
+		}
+		return oldSize - claimNodes.size();
 	}
 	
 	@Override
@@ -56,66 +152,246 @@ public class SudokuNetwork extends BasicGraph<NodeSet<?, ?>> implements Sudoku{
 		return sideLength;
 	}
 	
+  /**
+   * <p>Returns an unmodifiable list of the Claims of this graph.</p>
+   * @return an unmodifiable list of the Claims of this graph
+   */
+	public List<Claim> claimNodes(){
+		return Collections.unmodifiableList(claimNodes);
+	}
+	
+  /**
+   * <p>Returns an unmodifiable list of the Rules of this graph.</p>
+   * @return an unmodifiable list of the Rules of this graph
+   */
+	public List<Rule> ruleNodes(){
+		return Collections.unmodifiableList(ruleNodes);
+	}
+	
+  /**
+   * <p>Returns an unmodifiable list of the Inits of this graph.</p>
+   * @return an unmodifiable list of the Inits of this graph
+   */
+	public List<Init> initNodes(){
+		return Collections.unmodifiableList(initNodes);
+	}
+	
+  /**
+   * <p>Returns a sized Stream of the Facts of this graph, the Rules followed by the Inits, without 
+   * examining any Claims.</p>
+   * @return a Stream of the Facts of this graph
+   */
 	@Override
-	public String toString(){
-	  class CellPosition{
-	    
-	    private final int x;
-	    private final int y;
-	    
-	    CellPosition(int x, int y){
-	      this.y = y;
-	      this.x = x;
-	    }
-	    
-	    @Override
-	    public boolean equals(Object o){
-	      if(o instanceof CellPosition){
-	        CellPosition c = (CellPosition) o;
-	        return c.y == y && c.x == x;
-	      }
-	      return false;
-	    }
-	    
-	    @Override
-	    public int hashCode(){
-	      return sideLength() * y + x;
-	    }
-	  }
-	  
-	  Map<CellPosition, Fact> cells = nodeStream()
-        .filter(Rule.class::isInstance)
-        .map(Rule.class::cast)
-        .filter(Puzzle.RuleType.CELL::isTypeOf)
-        .collect(Collectors.toMap(
-            (cell) -> new CellPosition(cell.dimB().intValue(), cell.dimA().intValue()), 
-            Function.identity()));
-		
-		String empty = IntStream.range(0, sideLength())
-		    .mapToObj((i) -> " ")
-		    .collect(Collectors.joining());
-		StringBuilder result = new StringBuilder();
+	public Stream<Fact> factStream(){
+		return Stream.concat(ruleNodes.stream(), initNodes.stream());
+	}
+	
+  /**
+   * <p>Returns a sized Stream of the Claims of this graph, without examining any Facts.</p>
+   * @return a Stream of the Claims of this graph
+   */
+	@Override
+	public Stream<Claim> claimStream(){
+		return claimNodes.stream();
+	}
+	
+  /**
+   * <p>Returns the Facts of this graph in order of increasing size, without sorting them.</p>
+   * <p>This graph's Facts are indexed by size the first time they're needed, after which each Fact 
+   * keeps this graph's index up to date as it loses Claims, until a graph made from some of the 
+   * same Facts indexes them in turn.</p>
+   * @return the Facts of this graph in order of increasing size
+   */
+	@Override
+	public Iterable<Fact> factsBySize(){
+		return factSizeIndex();
+	}
+	
+  /**
+   * <p>Returns true if this graph is solved, false otherwise.</p>
+   * <p>After the first call to this method, {@link #factsBySize() factsBySize()}, or 
+   * {@link #unsolvedFacts() unsolvedFacts()}, this graph's Facts keep a count of the unsolved 
+   * Facts up to date as they lose Claims, making this a constant-time check. Once the graphs made 
+   * from this graph's {@link #connectedComponents(Function) components} index their Facts, as a 
+   * Solver's do each round, this graph's count is rebuilt from its Facts the next time it is 
+   * needed.</p>
+   * @return true if this graph is solved, false otherwise
+   */
+	@Override
+	public boolean isSolved(){
+		return factSizeIndex().unsolvedCount() == 0;
+	}
+	
+  /**
+   * <p>Returns a Stream of this graph's Facts that are not solved, in order of increasing size, 
+   * without examining the solved ones.</p>
+   * @return a Stream of this graph's Facts that are not solved
+   */
+	@Override
+	public Stream<Fact> unsolvedFacts(){
+		return StreamSupport.stream(factSizeIndex().unsolved().spliterator(), false);
+	}
+	
+  /**
+   * <p>Returns the index of this graph's Facts by size, building it if this is the first call or if 
+   * the index was {@link FactSizeIndex#isSuperseded() superseded} by the index of another graph 
+   * made from some of the same Facts, such as one of this graph's 
+   * {@link #connectedComponents(Function) components}.</p>
+   * <p>Building the index takes this graph's Facts over from any other graph's index; so, this 
+   * should only be called on a graph whose Facts are not also being worked on through another 
+   * graph.</p>
+   * @return the index of this graph's Facts by size
+   */
+	private FactSizeIndex factSizeIndex(){
+		if(factSizeIndex == null || factSizeIndex.isSuperseded()){
+			factSizeIndex = new FactSizeIndex(factStream());
+		}
+		return factSizeIndex;
+	}
+	
+  /**
+   * <p>Returns a Universe of this graph's Claims that have not been set false, in order of 
+   * {@link NodeSet#id() id}, building it if this is the first call.</p>
+   * <p>A component of a puzzle gets a Universe of its own Claims instead of sharing the puzzle's, 
+   * so BackedSets of its Claims are sized for the component, not for the whole puzzle. Claims set 
+   * false after the Universe is built stay in it.</p>
+   * @return a Universe of this graph's Claims that have not been set false
+   */
+	@Override
+	public Universe<Claim> claimUniverse(){
+		if(claimUniverse == null){
+			List<Claim> claims = claimNodes.stream()
+			    .filter((c) -> !c.isEmpty())
+			    .sorted(Comparator.comparingInt(Claim::id))
+			    .collect(Collectors.toList());
+			
+			long[] ids = new long[claims.isEmpty() 
+			    ? 0 
+			    : Bits.wordCount(claims.get(claims.size() - 1).id() + 1)];
+			claims.forEach((c) -> Bits.set(ids, c.id()));
+			int[] ranks = new int[ids.length];
+			for(int w = 1; w < ids.length; ++w){
+				ranks[w] = ranks[w - 1] + Long.bitCount(ids[w - 1]);
+			}
+			
+			claimUniverseIds = ids;
+			claimUniverseRanks = ranks;
+			claimUniverse = new Universe<>(claims);
+		}
+		return claimUniverse;
+	}
+	
+  /**
+   * <p>Returns a new BackedSet over this graph's {@link #claimUniverse() claim universe} containing 
+   * the Claims that {@code f} currently has.</p>
+   * <p>For a Rule, this works a word at a time, like {@link Puzzle#claimsOf(Fact) Puzzle's}: each 
+   * word of the Rule's precomputed {@link Topology#ruleWords(int) claim bitstring} is masked with 
+   * the puzzle's Claims that have not been set false, then translated from Claim ids to indices in 
+   * this graph's claim universe. That Universe is in order of id; so, the Claims whose ids fall in 
+   * one word have consecutive indices there, and translating the word only takes 
+   * {@link Bits#compress(long, long) packing} its bits together and shifting them into 
+   * place.</p>
+   * @param f a Fact of this graph
+   * @return a new BackedSet containing the Claims that {@code f} currently has
+   */
+	@Override
+	public BackedSet<Claim> claimsOf(Fact f){
+		Universe<Claim> universe = claimUniverse();
+		if(!(f instanceof Rule)){
+			return universe.back(f);
+		}
 		
-		for(int y = 0; y < sideLength(); ++y){
-			for(int x = 0; x < sideLength(); ++x){
-				result.append("|");
-				Fact cell = cells.get(new CellPosition(x, y));
-				if(cell == null){
-					result.append(empty);
-				} else{
-				  Puzzle p = cell.getPuzzle();
-				  int local_x = x;
-				  int local_y = y;
-				  result.append(IntStream.range(0, sideLength())
-				      .mapToObj((z) -> cell.contains(p.claim(local_x, local_y, z)) 
-				          ? Integer.toString(z, Parser.MAX_RADIX) 
-				          : " ")
-				      .collect(Collectors.joining()));
+		BackedSet<Claim> result = universe.back();
+		Puzzle puzzle = f.getPuzzle();
+		int[] wordIndices = puzzle.topology().ruleWordIndices(f.id());
+		long[] words = puzzle.topology().ruleWords(f.id());
+		for(int i = 0; i < wordIndices.length; ++i){
+			int w = wordIndices[i];
+			if(w >= claimUniverseIds.length){
+				break;
+			}
+			long packed = Bits.compress(words[i] & puzzle.liveClaimWord(w), claimUniverseIds[w]);
+			if(packed != 0){
+				int rank = claimUniverseRanks[w];
+				int offset = rank % Bits.BITS_PER_WORD;
+				result.addWord(Bits.wordIndex(rank), packed << offset);
+				if(offset != 0 && (packed >>> (Bits.BITS_PER_WORD - offset)) != 0){
+					result.addWord(Bits.wordIndex(rank) + 1, packed >>> (Bits.BITS_PER_WORD - offset));
 				}
 			}
-			result.append("|" + System.lineSeparator());
 		}
-		
-		return result.toString();
+		return result;
+	}
+	
+  /**
+   * <p>Returns a Universe of this graph's Facts, in order of {@link NodeSet#id() id}, building it 
+   * if this is the first call.</p>
+   * @return a Universe of this graph's Facts
+   */
+	@Override
+	public Universe<Fact> factUniverse(){
+		if(factUniverse == null){
+			factUniverse = new Universe<>(factStream()
+			    .sorted(Comparator.comparingInt(Fact::id))
+			    .collect(Collectors.toList()));
+		}
+		return factUniverse;
+	}
+	
+  /**
+   * <p>Returns the CELL Rules of this graph, indexed by their position in the grid, row by row, 
+   * with null for each cell that has no Rule in this graph. The array is built the first time it 
+   * is needed.</p>
+   * @return the CELL Rules of this graph, indexed by their position in the grid
+   */
+	protected Rule[] cells(){
+		if(cells == null){
+			Rule[] result = new Rule[sideLength * sideLength];
+			for(Rule r : ruleNodes){
+				if(r.getType() == Puzzle.RuleType.CELL){
+					result[r.dimA().intValue() * sideLength + r.dimB().intValue()] = r;
+				}
+			}
+			cells = result;
+		}
+		return cells;
+	}
+	
+  /**
+   * <p>Appends to {@code out} a grid with a box for each cell, row by row, showing the value of 
+   * each Claim that the cell's Rule in this graph still has, in base {@value Parser#MAX_RADIX}, 
+   * at that value's position in the box. A cell with no Rule in this graph is left blank.</p>
+   * @param out the buffer to which this graph is rendered
+   * @return {@code out}
+   */
+	@Override
+	public StringBuilder render(StringBuilder out){
+		String lineSeparator = System.lineSeparator();
+		int lineLength = sideLength * (sideLength + 1) + 1 + lineSeparator.length();
+		out.ensureCapacity(out.length() + sideLength * lineLength);
+		Rule[] cells = cells();
+		for(int y = 0; y < sideLength; ++y){
+			for(int x = 0; x < sideLength; ++x){
+				out.append('|');
+				int box = out.length();
+				for(int z = 0; z < sideLength; ++z){
+					out.append(' ');
+				}
+				Rule cell = cells[y * sideLength + x];
+				if(cell != null){
+					for(Claim c : cell){
+						int z = c.getZ().intValue();
+						out.setCharAt(box + z, Character.forDigit(z, Parser.MAX_RADIX));
+					}
+				}
+			}
+			out.append('|').append(lineSeparator);
+		}
+		return out;
+	}
+	
+	@Override
+	public String toString(){
+		return render(new StringBuilder()).toString();
 	}
 }
@@ -0,0 +1,256 @@
+package sudoku;
+
+import common.Bits;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import sudoku.Puzzle.RuleType;
+
+/**
+ * <p>The structure shared by all puzzles of a given {@link Sudoku#magnitude() magnitude}: which
+ * Claims belong to which Rules and which Claims are peers of (share a Rule with) which other 
+ * Claims, in terms of their {@link NodeSet#id() ids}.</p>
+ * <p>None of this depends on a puzzle's initial values; so, it is built once per magnitude, the
+ * first time a puzzle of that magnitude is constructed, and shared read-only by every puzzle of
+ * that magnitude after that. A new Puzzle only has to allocate its own nodes and their mutable
+ * edge state.</p>
+ * <p>The arrays returned by this class's methods are the shared templates themselves and must not
+ * be modified.</p>
+ * @author fiveham
+ */
+final class Topology{
+	
+	private static final Map<Integer, Topology> TEMPLATES = new ConcurrentHashMap<>();
+	
+  /**
+   * <p>Returns the Topology for puzzles whose magnitude is {@code magnitude}, building it if no
+   * puzzle of that magnitude has been constructed yet.</p>
+   * @param magnitude the magnitude of a puzzle
+   * @return the Topology for puzzles whose magnitude is {@code magnitude}
+   */
+	static Topology forMagnitude(int magnitude){
+		return TEMPLATES.computeIfAbsent(magnitude, Topology::new);
+	}
+	
+	private final int magnitude;
+	
+  /**
+   * <p>The ids of the Claims of each Rule, indexed by the Rule's id. The Claims of a Rule are
+   * listed in order of their position in the Rule's {@link RuleType#dimInsideRule(Puzzle) third
+   * dimension}.</p>
+   */
+	private final int[][] ruleClaims;
+	
+  /**
+   * <p>The ids of the Rules of each Claim, indexed by the Claim's id. The Rules of a Claim are
+   * listed in order of their {@link RuleType#ordinal() type}.</p>
+   */
+	private final int[][] claimRules;
+	
+  /**
+   * <p>The indices of the words in which each Claim's peer bitstring is non-zero, indexed by the 
+   * Claim's id.</p>
+   * @see #peerWords
+   */
+	private final int[][] peerWordIndices;
+	
+  /**
+   * <p>The non-zero words of each Claim's peer bitstring, indexed by the Claim's id. A Claim's peer 
+   * bitstring has a bit set for the id of each other Claim that shares a Rule with it. Only the 
+   * non-zero words are stored, since a Claim has only a few dozen peers.</p>
+   * @see #peerWordIndices
+   */
+	private final long[][] peerWords;
+	
+  /**
+   * <p>The indices of the words in which each Rule's claim bitstring is non-zero, indexed by the 
+   * Rule's id.</p>
+   * @see #ruleWords
+   */
+	private final int[][] ruleWordIndices;
+	
+  /**
+   * <p>The non-zero words of each Rule's claim bitstring, indexed by the Rule's id. A Rule's claim 
+   * bitstring has a bit set for the id of each of its Claims. A CELL Rule's Claims have 
+   * consecutive ids, so its bitstring is non-zero in one or two words; the Claims of a Rule of 
+   * any other type are spread out with a regular stride.</p>
+   * @see #ruleWordIndices
+   */
+	private final long[][] ruleWords;
+	
+	private Topology(int magnitude){
+		this.magnitude = magnitude;
+		
+		int sideLength = magnitude * magnitude;
+		int ruleTypeCount = RuleType.values().length;
+		int claimCount = sideLength * sideLength * sideLength;
+		this.ruleClaims = new int[ruleTypeCount * sideLength * sideLength][];
+		this.claimRules = new int[claimCount][ruleTypeCount];
+		
+		for(RuleType type : RuleType.values()){
+			for(int a = 0; a < sideLength; ++a){
+				for(int b = 0; b < sideLength; ++b){
+					int ruleId = NodeSet.linearizeCoords(type.ordinal(), a, b, sideLength);
+					int[] claimIds = new int[sideLength];
+					for(int c = 0; c < sideLength; ++c){
+						claimIds[c] = type.claimId(a, b, c, magnitude);
+						claimRules[claimIds[c]][type.ordinal()] = ruleId;
+					}
+					ruleClaims[ruleId] = claimIds;
+				}
+			}
+		}
+		
+		this.peerWordIndices = new int[claimCount][];
+		this.peerWords = new long[claimCount][];
+		long[] bits = new long[Bits.wordCount(claimCount)];
+		for(int claimId = 0; claimId < claimCount; ++claimId){
+			for(int ruleId : claimRules[claimId]){
+				for(int peerId : ruleClaims[ruleId]){
+					Bits.set(bits, peerId);
+				}
+			}
+			Bits.clear(bits, claimId);
+			peerWordIndices[claimId] = nonZeroWordIndices(bits);
+			peerWords[claimId] = nonZeroWords(bits, peerWordIndices[claimId]);
+			Arrays.fill(bits, 0L);
+		}
+		
+		this.ruleWordIndices = new int[ruleClaims.length][];
+		this.ruleWords = new long[ruleClaims.length][];
+		for(int ruleId = 0; ruleId < ruleClaims.length; ++ruleId){
+			for(int claimId : ruleClaims[ruleId]){
+				Bits.set(bits, claimId);
+			}
+			ruleWordIndices[ruleId] = nonZeroWordIndices(bits);
+			ruleWords[ruleId] = nonZeroWords(bits, ruleWordIndices[ruleId]);
+			Arrays.fill(bits, 0L);
+		}
+	}
+	
+  /**
+   * <p>Returns the indices of the non-zero words of {@code bits}, in increasing order.</p>
+   * @param bits a bitstring
+   * @return the indices of the non-zero words of {@code bits}
+   */
+	private static int[] nonZeroWordIndices(long[] bits){
+		int nonZero = 0;
+		for(long word : bits){
+			if(word != 0){
+				nonZero++;
+			}
+		}
+		int[] result = new int[nonZero];
+		for(int w = 0, i = 0; w < bits.length; ++w){
+			if(bits[w] != 0){
+				result[i++] = w;
+			}
+		}
+		return result;
+	}
+	
+  /**
+   * <p>Returns the words of {@code bits} at the specified {@code wordIndices}.</p>
+   * @param bits a bitstring
+   * @param wordIndices the indices of some words of {@code bits}
+   * @return the words of {@code bits} at the specified indices
+   */
+	private static long[] nonZeroWords(long[] bits, int[] wordIndices){
+		long[] result = new long[wordIndices.length];
+		for(int i = 0; i < wordIndices.length; ++i){
+			result[i] = bits[wordIndices[i]];
+		}
+		return result;
+	}
+	
+  /**
+   * <p>Returns the magnitude of the puzzles that share this Topology.</p>
+   * @return the magnitude of the puzzles that share this Topology
+   */
+	int magnitude(){
+		return magnitude;
+	}
+	
+  /**
+   * <p>Returns the number of Rules in a puzzle with this Topology.</p>
+   * @return the number of Rules in a puzzle with this Topology
+   */
+	int ruleCount(){
+		return ruleClaims.length;
+	}
+	
+  /**
+   * <p>Returns the number of Claims in a puzzle with this Topology.</p>
+   * @return the number of Claims in a puzzle with this Topology
+   */
+	int claimCount(){
+		return claimRules.length;
+	}
+	
+  /**
+   * <p>Returns the ids of the Claims of the Rule whose id is {@code ruleId}.</p>
+   * @param ruleId the id of a Rule
+   * @return the ids of the Claims of the Rule whose id is {@code ruleId}
+   */
+	int[] ruleClaims(int ruleId){
+		return ruleClaims[ruleId];
+	}
+	
+  /**
+   * <p>Returns the ids of the Rules of the Claim whose id is {@code claimId}.</p>
+   * @param claimId the id of a Claim
+   * @return the ids of the Rules of the Claim whose id is {@code claimId}
+   */
+	int[] claimRules(int claimId){
+		return claimRules[claimId];
+	}
+	
+  /**
+   * <p>Returns the indices of the words in which the peer bitstring of the Claim whose id is 
+   * {@code claimId} is non-zero, in increasing order.</p>
+   * @param claimId the id of a Claim
+   * @return the indices of the words in which the peer bitstring of the Claim whose id is 
+   * {@code claimId} is non-zero
+   * @see #peerWords(int)
+   */
+	int[] peerWordIndices(int claimId){
+		return peerWordIndices[claimId];
+	}
+	
+  /**
+   * <p>Returns the non-zero words of the peer bitstring of the Claim whose id is {@code claimId}, 
+   * which has a bit set for the id of each other Claim that shares a Rule with it. The word at 
+   * index {@code i} of the returned array is word {@code peerWordIndices(claimId)[i]} of the 
+   * bitstring.</p>
+   * @param claimId the id of a Claim
+   * @return the non-zero words of the peer bitstring of the Claim whose id is {@code claimId}
+   * @see #peerWordIndices(int)
+   */
+	long[] peerWords(int claimId){
+		return peerWords[claimId];
+	}
+	
+  /**
+   * <p>Returns the indices of the words in which the claim bitstring of the Rule whose id is 
+   * {@code ruleId} is non-zero, in increasing order.</p>
+   * @param ruleId the id of a Rule
+   * @return the indices of the words in which the claim bitstring of the Rule whose id is 
+   * {@code ruleId} is non-zero
+   * @see #ruleWords(int)
+   */
+	int[] ruleWordIndices(int ruleId){
+		return ruleWordIndices[ruleId];
+	}
+	
+  /**
+   * <p>Returns the non-zero words of the claim bitstring of the Rule whose id is {@code ruleId}, 
+   * which has a bit set for the id of each of that Rule's Claims. The word at index {@code i} of 
+   * the returned array is word {@code ruleWordIndices(ruleId)[i]} of the bitstring.</p>
+   * @param ruleId the id of a Rule
+   * @return the non-zero words of the claim bitstring of the Rule whose id is {@code ruleId}
+   * @see #ruleWordIndices(int)
+   */
+	long[] ruleWords(int ruleId){
+		return ruleWords[ruleId];
+	}
+}
@@ -0,0 +1,127 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * <p>An undo log of the edges removed from a {@link Puzzle}'s graph, so that Claims can be set
+ * false on the real graph as a hypothesis and then restored.</p>
+ * <p>{@link #mark() Marking} the trail starts recording; every edge removed from then on is logged
+ * as the pair of {@link NodeSet#id() ids} of its Claim and its Fact. {@link #rollbackTo(int)
+ * Rolling back} to a mark re-links the edges logged since that mark, in reverse order, and
+ * {@link #release(int) releasing} a mark keeps them removed. Either way, the cost is proportional
+ * to the number of edges removed since the mark. When no mark is outstanding, nothing is
+ * logged.</p>
+ * <p>A Trail is single-threaded. Its mark depth and its log are plain fields; so, a mark must be
+ * made, rolled back or released on the same thread that removes edges from the Puzzle while the
+ * mark is outstanding, and no other thread may change the Puzzle meanwhile. In particular, a
+ * Puzzle must not be marked while a {@link Solver} is working on it, since a Solver's component
+ * threads change the Puzzle concurrently, in any
+ * {@link ConsequenceIntersection.Mode mode}.</p>
+ * @author fiveham
+ */
+public class Trail{
+	
+	private final Puzzle puzzle;
+	
+  /**
+   * <p>The ids of the Claim and Fact of each logged edge, in the order the edges were removed: the
+   * Claim's id at an even index and the Fact's id right after it.</p>
+   */
+	private int[] edges;
+	
+	private int length;
+	
+  /**
+   * <p>The number of {@link #mark() marks} that have not been rolled back or released.</p>
+   */
+	private int depth;
+	
+  /**
+   * <p>Constructs a Trail for {@code puzzle} with no marks and nothing logged.</p>
+   * @param puzzle the Puzzle whose edge removals are logged
+   */
+	Trail(Puzzle puzzle){
+		this.puzzle = puzzle;
+		this.edges = new int[INITIAL_CAPACITY];
+		this.length = 0;
+		this.depth = 0;
+	}
+	
+	private static final int INITIAL_CAPACITY = 64;
+	
+  /**
+   * <p>Logs the removal of the edge between {@code c} and {@code f} if any mark is
+   * outstanding.</p>
+   * @param c the Claim of a removed edge
+   * @param f the Fact of a removed edge
+   */
+	void removed(Claim c, Fact f){
+		if(depth == 0){
+			return;
+		}
+		if(length + EDGE_LENGTH > edges.length){
+			edges = Arrays.copyOf(edges, edges.length * 2);
+		}
+		edges[length++] = c.id();
+		edges[length++] = f.id();
+	}
+	
+	private static final int EDGE_LENGTH = 2;
+	
+  /**
+   * <p>Returns a mark for the current state of the Puzzle's graph and starts logging edge removals
+   * if they aren't already being logged. Every mark must eventually be passed to either
+   * {@link #rollbackTo(int) rollbackTo()} or {@link #release(int) release()}, with later marks
+   * passed before earlier ones.</p>
+   * @return a mark for the current state of the Puzzle's graph
+   */
+	public int mark(){
+		depth++;
+		return length;
+	}
+	
+  /**
+   * <p>Re-links every edge removed since {@code mark} was {@link #mark() made}, restoring the
+   * graph to the state it had then, and retires {@code mark}.</p>
+   * @param mark a mark returned by {@link #mark()} that has not been retired
+   * @throws IllegalArgumentException if {@code mark} cannot be a mark that has not been retired
+   */
+	public void rollbackTo(int mark){
+		checkMark(mark);
+		int logged = length;
+		length = mark;
+		depth--;
+		while(logged > mark){
+			Fact f = puzzle.fact(edges[--logged]);
+			Claim c = puzzle.claim(edges[--logged]);
+			c.add(f);
+		}
+	}
+	
+  /**
+   * <p>Retires {@code mark}, keeping the edges removed since it was {@link #mark() made} removed.
+   * If {@code mark} is the only mark outstanding, the log is cleared.</p>
+   * @param mark a mark returned by {@link #mark()} that has not been retired
+   * @throws IllegalArgumentException if {@code mark} cannot be a mark that has not been retired
+   */
+	public void release(int mark){
+		checkMark(mark);
+		if(--depth == 0){
+			length = 0;
+		}
+	}
+	
+  /**
+   * <p>Returns true if any {@link #mark() mark} is outstanding, false otherwise.</p>
+   * @return true if any mark is outstanding, false otherwise
+   */
+	public boolean isMarked(){
+		return depth > 0;
+	}
+	
+	private void checkMark(int mark){
+		if(depth == 0 || mark < 0 || mark > length || mark % EDGE_LENGTH != 0){
+			throw new IllegalArgumentException("Not an outstanding mark: " + mark);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package sudoku;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * <p>Falsifies Claims of each puzzle in a directory under nested {@link Trail#mark() marks} of its 
+ * {@link Puzzle#trail() trail}, rolls each mark back, and checks that the grid of candidates, the size 
+ * of every Fact, and every Claim's {@link Claim#visible() visible} Claims are what they were when 
+ * the mark was made.</p>
+ * @author fiveham
+ */
+public class TrailTester {
+	
+	public static final String PUZZLE_DIRECTORY = "./puzzles/";
+	
+	private static final int FALSIFIED_PER_MARK = 50;
+	
+	private static final long SEED = 2;
+	
+	public static void main(String[] args) {
+		File directory = new File(args.length > 0 ? args[0] : PUZZLE_DIRECTORY);
+		int failures = 0;
+		for(String name : directory.list()){
+			for(Puzzle.Backend backend : Puzzle.Backend.values()){
+				try{
+					String problem = roundTrip(new Puzzle(new File(directory, name), "UTF-8", backend));
+					if(problem != null){
+						System.out.println(name + " " + backend + ": " + problem);
+						failures++;
+					}
+				} catch(FileNotFoundException e){
+					System.out.println("Could not find file " + name);
+				}
+			}
+		}
+		System.out.println(failures == 0 ? "All rollbacks check out" : failures + " failures");
+		if(failures > 0){
+			System.exit(1);
+		}
+	}
+	
+  /**
+   * <p>Makes two nested marks on {@code puzzle}'s trail, falsifying some random Claims after each, 
+   * then rolls back to each mark in turn and compares {@code puzzle} to a snapshot taken when that 
+   * mark was made.</p>
+   * @param puzzle a Puzzle with no outstanding marks
+   * @return a description of the first difference found, or null if there is none
+   */
+	private static String roundTrip(Puzzle puzzle){
+		Random random = new Random(SEED);
+		Trail trail = puzzle.trail();
+		
+		Snapshot outer = new Snapshot(puzzle);
+		int outerMark = trail.mark();
+		falsifySome(puzzle, random);
+		
+		Snapshot inner = new Snapshot(puzzle);
+		int innerMark = trail.mark();
+		falsifySome(puzzle, random);
+		
+		trail.rollbackTo(innerMark);
+		String problem = inner.difference(new Snapshot(puzzle));
+		if(problem != null){
+			return "after the inner rollback, " + problem;
+		}
+		
+		trail.rollbackTo(outerMark);
+		problem = outer.difference(new Snapshot(puzzle));
+		if(problem != null){
+			return "after the outer rollback, " + problem;
+		}
+		return trail.isMarked() ? "the trail is still marked" : null;
+	}
+	
+	private static void falsifySome(Puzzle puzzle, Random random){
+		List<Claim> claims = puzzle.claimNodes();
+		for(int i = 0; i < FALSIFIED_PER_MARK; ++i){
+			claims.get(random.nextInt(claims.size())).setFalse();
+		}
+	}
+	
+  /**
+   * <p>The grid of each cell's remaining candidates, the size of each Fact, and each Claim's 
+   * visible Claims of a Puzzle at some moment.</p>
+   */
+	private static class Snapshot{
+		
+		private final String grid;
+		private final List<Integer> factSizes = new ArrayList<>();
+		private final List<Set<Claim>> visible = new ArrayList<>();
+		
+		private Snapshot(Puzzle puzzle){
+			this.grid = new SudokuNetwork(puzzle.magnitude(), puzzle).toString();
+			puzzle.factStream().forEach((f) -> factSizes.add(f.size()));
+			puzzle.claimStream().forEach((c) -> visible.add(new HashSet<>(c.visible())));
+		}
+		
+    /**
+     * <p>Returns a description of the first way in which {@code other} differs from this 
+     * Snapshot, or null if it doesn't.</p>
+     * @param other a Snapshot of the same Puzzle
+     * @return a description of a difference, or null if there is none
+     */
+		private String difference(Snapshot other){
+			if(!grid.equals(other.grid)){
+				return "the grid differs";
+			}
+			if(!factSizes.equals(other.factSizes)){
+				return "the Fact sizes differ";
+			}
+			if(!visible.equals(other.visible)){
+				return "the visible Claims differ";
+			}
+			return null;
+		}
+	}
+}